@@ -0,0 +1,48 @@
+package game.battle;
+
+import game.droid.DroidBlueprint;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Dimension;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Вартість одного тіку BattleEngine.update для різних розмірів команд.
+ * Коли бій завершується, двигун перестворюється з тими самими дроїдами
+ * (дроїди не перебудовуються, тож завантаження спрайтів у вимір не потрапляє).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BattleEngineTickBenchmark {
+
+    @Param({"1", "4", "64"})
+    public int teamSize;
+
+    private List<DroidBlueprint> left;
+    private List<DroidBlueprint> right;
+    private BattleEngine engine;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        left = BenchTeams.mixed(teamSize, 1);
+        right = BenchTeams.mixed(teamSize, teamSize + 1);
+        newEngine();
+    }
+
+    private void newEngine() {
+        engine = new BattleEngine(BenchTeams.scenario(left, right, seed++), new Dimension(1000, 700), false);
+    }
+
+    @Benchmark
+    public long update() {
+        if (engine.isFinished()) newEngine();
+        engine.update(BattleScenario.DEFAULT_STEP_MS);
+        return engine.getElapsedMs();
+    }
+}
@@ -0,0 +1,37 @@
+package game.battle;
+
+import game.droid.DroidBlueprint;
+import game.droid.DroidType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Спільні заготовки команд для бенчмарків.
+ */
+final class BenchTeams {
+    private static final DroidType[] ROTATION = {
+            DroidType.CRUSHER, DroidType.SCOUTLING, DroidType.MEDICOR, DroidType.PHANTOM
+    };
+
+    private BenchTeams() {
+    }
+
+    /**
+     * Змішана команда (типи по колу), id починаються з firstId.
+     */
+    static List<DroidBlueprint> mixed(int size, int firstId) {
+        List<DroidBlueprint> team = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            DroidType t = ROTATION[i % ROTATION.length];
+            int id = firstId + i;
+            team.add(new DroidBlueprint(id, t, t.getDisplayName() + "-" + id));
+        }
+        return team;
+    }
+
+    static BattleScenario scenario(List<DroidBlueprint> left, List<DroidBlueprint> right, long seed) {
+        BattleMode mode = (left.size() == 1 && right.size() == 1) ? BattleMode.ONE_VS_ONE : BattleMode.TEAM_VS_TEAM;
+        return new BattleScenario(mode, left, right, seed, BattleScenario.DEFAULT_STEP_MS);
+    }
+}
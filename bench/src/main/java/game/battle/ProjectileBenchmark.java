@@ -0,0 +1,53 @@
+package game.battle;
+
+import game.droid.DroidBlueprint;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Dimension;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * updateProjectiles під великою кількістю снарядів у польоті.
+ * Снаряди летять повільно від лівого краю до цілей праворуч (перевірка
+ * влучання виконується щоразу), кількість підтримується сталою.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectileBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    public int projectiles;
+
+    private BattleEngine engine;
+    private int[] targetIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<DroidBlueprint> left = BenchTeams.mixed(4, 1);
+        List<DroidBlueprint> right = BenchTeams.mixed(4, 5);
+        engine = new BattleEngine(BenchTeams.scenario(left, right, 1), new Dimension(1000, 700), false);
+        targetIds = right.stream().mapToInt(DroidBlueprint::getId).toArray();
+        topUp();
+    }
+
+    private void topUp() {
+        while (engine.getProjectiles().size() < projectiles) {
+            int i = next++;
+            double y = 420 + (i % 200);
+            engine.spawnProjectile(0, y, 0.001, 0.0, 1, targetIds[i % targetIds.length], true, 10);
+        }
+    }
+
+    @Benchmark
+    public int updateProjectiles() {
+        engine.updateProjectiles(BattleScenario.DEFAULT_STEP_MS);
+        topUp();
+        return engine.getProjectiles().size();
+    }
+}
@@ -0,0 +1,58 @@
+package game.battle;
+
+import game.droid.Droid;
+import game.droid.DroidBlueprint;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.awt.Dimension;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пошук цілі (selectTargetFor) і пацієнта для медика (selectHealTarget)
+ * на «побитих» командах різного розміру.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TargetSelectionBenchmark {
+
+    @Param({"4", "64", "256"})
+    public int teamSize;
+
+    private BattleEngine engine;
+    private BattleParticipant[] attackers;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<DroidBlueprint> left = BenchTeams.mixed(teamSize, 1);
+        List<DroidBlueprint> right = BenchTeams.mixed(teamSize, teamSize + 1);
+        engine = new BattleEngine(BenchTeams.scenario(left, right, 1), new Dimension(1000, 700), false);
+
+        Random rnd = new Random(42);
+        for (BattleParticipant p : engine.getParticipants()) {
+            Droid d = p.getDroid();
+            d.setHealth(1 + rnd.nextInt(d.getMaxHealth()));
+            engine.onHealthChanged(d.getId());
+        }
+        attackers = engine.getParticipants().toArray(new BattleParticipant[0]);
+    }
+
+    @Benchmark
+    public Droid selectTarget() {
+        BattleParticipant p = attackers[next++ % attackers.length];
+        return engine.selectTargetFor(p);
+    }
+
+    @Benchmark
+    public void selectHealTarget(Blackhole bh) {
+        bh.consume(engine.selectHealTarget(BattleSide.LEFT));
+        bh.consume(engine.selectHealTarget(BattleSide.RIGHT));
+    }
+}
@@ -0,0 +1,63 @@
+package game.battle;
+
+import game.droid.DroidBlueprint;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Dimension;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Цілий бій без вікна: покроково (update) проти стрибків від події до події (runToFinish),
+ * а також з аналітичними снарядами (без покрокового польоту).
+ * Лог подій у всіх випадках однаковий, різниться лише виконана робота.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WholeBattleBenchmark {
+
+    @Param({"1", "4", "64"})
+    public int teamSize;
+
+    private List<DroidBlueprint> left;
+    private List<DroidBlueprint> right;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        left = BenchTeams.mixed(teamSize, 1);
+        right = BenchTeams.mixed(teamSize, teamSize + 1);
+    }
+
+    private BattleEngine newEngine() {
+        return new BattleEngine(BenchTeams.scenario(left, right, seed++), new Dimension(1000, 700), false);
+    }
+
+    @Benchmark
+    public long ticks() {
+        BattleEngine engine = newEngine();
+        while (!engine.isFinished()) {
+            engine.update(BattleScenario.DEFAULT_STEP_MS);
+        }
+        return engine.getElapsedMs();
+    }
+
+    @Benchmark
+    public long eventDriven() {
+        BattleEngine engine = newEngine();
+        engine.runToFinish();
+        return engine.getElapsedMs();
+    }
+
+    @Benchmark
+    public long analytic() {
+        BattleEngine engine = newEngine();
+        engine.setAnalyticProjectiles(true);
+        engine.runToFinish();
+        return engine.getElapsedMs();
+    }
+}
@@ -0,0 +1,78 @@
+package game.storage;
+
+import game.battle.BattleMode;
+import game.battle.BattleSide;
+import game.droid.DroidType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускна здатність BattleLogIO.write/read на великих логах.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BattleLogIOBenchmark {
+
+    @Param({"10000", "100000"})
+    public int events;
+
+    private BattleLog log;
+    private Path readPath;
+    private Path writePath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        log = syntheticLog(events);
+        readPath = Files.createTempFile("battle-read", ".txt");
+        writePath = Files.createTempFile("battle-write", ".txt");
+        BattleLogIO.write(log, readPath);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(readPath);
+        Files.deleteIfExists(writePath);
+    }
+
+    @Benchmark
+    public Path write() throws IOException {
+        BattleLogIO.write(log, writePath);
+        return writePath;
+    }
+
+    @Benchmark
+    public BattleLog read() throws IOException {
+        return BattleLogIO.read(readPath);
+    }
+
+    /**
+     * Лог, схожий на справжній бій 4 на 4: постріли, влучання, статистика.
+     */
+    static BattleLog syntheticLog(int events) {
+        BattleLog log = new BattleLog(BattleMode.TEAM_VS_TEAM);
+        DroidType[] types = DroidType.values();
+        for (int id = 1; id <= 8; id++) {
+            log.addParticipant(new DroidEntry(id, "Droid-" + id, types[id % types.length],
+                    id <= 4 ? BattleSide.LEFT : BattleSide.RIGHT));
+        }
+        for (int i = 0; i < events; i++) {
+            long t = i * 16L;
+            int attacker = 1 + i % 8;
+            int target = 1 + (i + 4) % 8;
+            switch (i % 3) {
+                case 0 -> log.append(t, EventType.LASER_SHOT, attacker, target, 1, 12);
+                case 1 -> log.append(t, EventType.LASER_HIT, attacker, target, 12, 88);
+                default -> log.append(t, EventType.STATS, target, 88, attacker, 12);
+            }
+        }
+        return log;
+    }
+}
@@ -0,0 +1,57 @@
+package game.storage;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Розмір і швидкість запису/читання логу у кожному форматі: текст, бінарний і їхні стиснені варіанти.
+ * Розміри файлів друкуються під час підготовки.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogFormatBenchmark {
+
+    @Param({"txt", "txt.gz", "dblg", "dblg.gz"})
+    public String format;
+
+    @Param({"100000"})
+    public int events;
+
+    private BattleLog log;
+    private Path readPath;
+    private Path writePath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        log = BattleLogIOBenchmark.syntheticLog(events);
+        readPath = Files.createTempFile("battle-read", "." + format);
+        writePath = Files.createTempFile("battle-write", "." + format);
+        BattleLogIO.write(log, readPath);
+        System.out.println("\n" + format + ": " + Files.size(readPath) + " байт");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(readPath);
+        Files.deleteIfExists(writePath);
+    }
+
+    @Benchmark
+    public Path write() throws IOException {
+        BattleLogIO.write(log, writePath);
+        return writePath;
+    }
+
+    @Benchmark
+    public BattleLog read() throws IOException {
+        return BattleLogIO.read(readPath);
+    }
+}
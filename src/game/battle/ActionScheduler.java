@@ -0,0 +1,176 @@
+package game.battle;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Планувальник дій бою: бінарна купа за абсолютним часом виконання.
+ *
+ * runDue() торкається лише дій, час яких настав. У межах одного тіку дії
+ * виконуються в порядку планування (seq), тож порядок детермінований і
+ * збігається з попереднім списковим планувальником. Дії, заплановані під час
+ * runDue(), чекають щонайменше до наступного тіку.
+ *
+ * Обʼєкти ScheduledAction беруться з пулу й повертаються туди після виконання
+ * або скасування; скасовані дії лишаються в купі до свого часу і там же відкидаються.
+ * Тому schedule() не повертає посилання на дію: після повторного використання воно
+ * вказувало б на іншу дію. Скасування — лише за власником (cancelOwner).
+ */
+public class ActionScheduler {
+    public static final int NO_OWNER = -1;
+
+    /**
+     * Виконує дії, заплановані видом (kind) з аргументами, а не Runnable.
+     */
+    public interface Handler {
+        void run(ScheduledAction action);
+    }
+
+    private static final Comparator<ScheduledAction> BY_DUE =
+            Comparator.comparingLong(ScheduledAction::getDueMs).thenComparingLong(ScheduledAction::getSeq);
+    private static final Comparator<ScheduledAction> BY_SEQ =
+            Comparator.comparingLong(ScheduledAction::getSeq);
+
+    private final Handler handler;
+    private final PriorityQueue<ScheduledAction> queue = new PriorityQueue<>(BY_DUE);
+    // Дії поточного тіку (перевикористовується)
+    private final List<ScheduledAction> due = new ArrayList<>();
+    private final ArrayDeque<ScheduledAction> pool = new ArrayDeque<>();
+    private int cancelledInQueue = 0;
+    private long nextSeq = 0;
+
+    public ActionScheduler() {
+        this(null);
+    }
+
+    public ActionScheduler(Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Планує дію через delayMs від nowMs.
+     */
+    public void schedule(long nowMs, long delayMs, int ownerId, Runnable action) {
+        enqueue(nowMs, delayMs, ownerId, action, 0, 0, 0, 0);
+    }
+
+    public void schedule(long nowMs, long delayMs, Runnable action) {
+        schedule(nowMs, delayMs, NO_OWNER, action);
+    }
+
+    /**
+     * Планує дію заданого виду — її виконає обробник планувальника.
+     */
+    public void schedule(long nowMs, long delayMs, int ownerId, int kind, int a, int b, int c) {
+        if (handler == null) throw new IllegalStateException("Планувальник створено без обробника дій");
+        enqueue(nowMs, delayMs, ownerId, null, kind, a, b, c);
+    }
+
+    private void enqueue(long nowMs, long delayMs, int ownerId, Runnable action, int kind, int a, int b, int c) {
+        ScheduledAction s = pool.poll();
+        if (s == null) s = new ScheduledAction();
+        s.init(nowMs + Math.max(0, delayMs), nextSeq++, ownerId, action, kind, a, b, c);
+        queue.add(s);
+    }
+
+    /**
+     * Виконує всі дії з часом <= nowMs. Повертає кількість виконаних.
+     */
+    public int runDue(long nowMs) {
+        ScheduledAction head = queue.peek();
+        if (head == null || head.getDueMs() > nowMs) return 0;
+
+        // Спершу знімаємо всі готові — нові дії з run() потраплять у купу й чекатимуть
+        while (head != null && head.getDueMs() <= nowMs) {
+            ScheduledAction a = queue.poll();
+            if (a.isCancelled()) {
+                cancelledInQueue--;
+                release(a);
+            } else {
+                due.add(a);
+            }
+            head = queue.peek();
+        }
+        if (due.size() > 1) due.sort(BY_SEQ);
+
+        int ran = 0;
+        for (int i = 0; i < due.size(); i++) {
+            ScheduledAction a = due.get(i);
+            if (a.isCancelled()) continue;
+            if (a.hasRunnable()) {
+                a.run();
+            } else {
+                handler.run(a);
+            }
+            ran++;
+        }
+        // у пул — лише після всього тіку: дії з due ще можуть скасовувати під час run()
+        for (int i = 0; i < due.size(); i++) {
+            release(due.get(i));
+        }
+        due.clear();
+        return ran;
+    }
+
+    /**
+     * Скасовує всі дії дроїда (наприклад, коли він загинув). Повертає кількість скасованих.
+     */
+    public int cancelOwner(int ownerId) {
+        if (ownerId == NO_OWNER) return 0;
+        int count = 0;
+        for (ScheduledAction a : queue) {
+            if (a.getOwnerId() == ownerId && !a.isCancelled()) {
+                a.cancel();
+                cancelledInQueue++;
+                count++;
+            }
+        }
+        // дії, уже зняті в поточному тіку, теж не повинні виконатись
+        for (int i = 0; i < due.size(); i++) {
+            ScheduledAction a = due.get(i);
+            if (a.getOwnerId() == ownerId && !a.isCancelled()) {
+                a.cancel();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Час найближчої дії в черзі або Long.MAX_VALUE, якщо черга порожня
+     * (скасована дія теж рахується — це лише нижня межа).
+     */
+    public long nextDueMs() {
+        ScheduledAction head = queue.peek();
+        return (head == null) ? Long.MAX_VALUE : head.getDueMs();
+    }
+
+    public int size() {
+        return queue.size() - cancelledInQueue;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        for (ScheduledAction a : queue) {
+            release(a);
+        }
+        queue.clear();
+        // поточний тік (якщо clear() викликано з дії) довиконується без решти дій
+        for (int i = 0; i < due.size(); i++) {
+            due.get(i).cancel();
+        }
+        cancelledInQueue = 0;
+        nextSeq = 0;
+    }
+
+    private void release(ScheduledAction a) {
+        a.release();
+        pool.push(a);
+    }
+}
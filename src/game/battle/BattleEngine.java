@@ -1,12 +1,16 @@
 package game.battle;
 
+import game.core.SimulationClock;
+import game.droid.AnimationState;
 import game.droid.Droid;
+import game.droid.DroidBlueprint;
 import game.droid.DroidType;
 import game.droid.types.Medicor;
 import game.droid.types.Phantom;
-import game.storage.BattleEvent;
+import game.storage.BattleCheckpoint;
 import game.storage.BattleLog;
 import game.storage.DroidEntry;
+import game.storage.EventType;
 import java.awt.*;
 import java.util.*;
 import java.util.List;
@@ -23,44 +27,90 @@ public class BattleEngine {
     private final Dimension panelSize;
 
     private final List<BattleParticipant> participants = new ArrayList<>();
-    private final Map<Integer, BattleParticipant> byId = new HashMap<>();
+    // HP, кулдауни, блокування, ручні цілі — у масивах за слотом учасника
+    private final CombatState state;
 
-    private final List<LaserProjectile> projectiles = new ArrayList<>();
+    // Живі учасники кожної сторони за відсотком HP (індекс = BattleSide.ordinal())
+    private final HealthHeap[] healthBySide = new HealthHeap[BattleSide.values().length];
 
-    private final Map<Integer, Long> cooldownMs = new HashMap<>();
-    private final Set<Integer> lockedActors = new HashSet<>();
+    // Снаряди цього бою (власні для кожного екземпляра)
+    private final ProjectileSystem projectiles;
 
-    private final List<ScheduledAction> scheduled = new ArrayList<>();
+    // Робочі прямокутники для меж дроїдів (щоб не створювати нові на кожен постріл)
+    private final Rectangle boundsA = new Rectangle();
+    private final Rectangle boundsB = new Rectangle();
 
-    // Для team-vs-team: attackerId -> targetId
-    private final Map<Integer, Integer> manualTargets = new HashMap<>();
+    // Відкладені дії — вид і аргументи-слоти замість лямбд (див. runAction)
+    private static final int ACTION_IDLE = 1;           // a — слот дроїда
+    private static final int ACTION_HEAL_APPLY = 2;     // a — медик, b — пацієнт, c — скільки лікувати
+    private static final int ACTION_HEAL_END = 3;       // a — медик
+    private static final int ACTION_PHANTOM_STRIKE = 4; // a — фантом, b — ціль
+    private static final int ACTION_PHANTOM_RETURN = 5; // a — фантом
 
-    private final Random rnd = new Random();
+    private final ActionScheduler scheduler = new ActionScheduler(this::runAction);
+
+    private final Random rnd;
+
+    // Фіксований крок симуляції: update(delta) накопичує час і проганяє рівні кроки,
+    // тому результат не залежить від того, як викликач нарізає час
+    private final long stepMs;
+    private long accumulatorMs = 0;
+    private final SimulationClock clock = new SimulationClock();
+
+    // Чи дублювати події у консоль (для пакетної симуляції вимикаємо)
+    private final boolean echoEvents;
+
+    // Сумарна завдана шкода по сторонах (індекс = BattleSide.ordinal())
+    private final long[] damageDealt = new long[BattleSide.values().length];
 
     private long elapsedMs = 0;
     private boolean finished = false;
     private BattleResult result;
 
     private final BattleLog log;
-    private final Deque<BattleEvent> replayEvents;
+    // Індекс наступної події логу, яку треба відтворити
+    private int replayCursor = 0;
+
+    // Після цього часу бій завершується перемогою сторони з більшим сумарним HP
+    private static final long TIMEOUT_MS = 60000;
+
+    // Знімки стану для перемотки реплею (0 — не знімати)
+    public static final long DEFAULT_CHECKPOINT_INTERVAL_MS = 5000;
+    private long checkpointIntervalMs = DEFAULT_CHECKPOINT_INTERVAL_MS;
+    private long nextCheckpointMs = DEFAULT_CHECKPOINT_INTERVAL_MS;
+    // Стан на початку реплею — до нього повертаємось, якщо у логу немає знімків раніше
+    private BattleCheckpoint initialCheckpoint;
 
     public BattleEngine(BattleScenario scenario, Dimension panelSize) {
+        this(scenario, panelSize, true);
+    }
+
+    /**
+     * @param echoEvents чи друкувати кожну подію у консоль
+     */
+    public BattleEngine(BattleScenario scenario, Dimension panelSize, boolean echoEvents) {
         this.scenario = scenario;
         this.panelSize = new Dimension(Math.max(1, panelSize.width), Math.max(1, panelSize.height));
+        this.rnd = new Random(scenario.getSeed());
+        this.stepMs = scenario.getStepMs();
+        this.echoEvents = echoEvents;
 
         if (scenario.getMode() == BattleMode.REPLAY) {
             this.log = scenario.getReplayLog();
             if (this.log == null) throw new IllegalArgumentException("Replay mode requires BattleLog");
-            this.replayEvents = new ArrayDeque<>(this.log.getEvents());
         } else {
             this.log = new BattleLog(scenario.getMode());
-            this.replayEvents = new ArrayDeque<>();
         }
 
+        this.state = new CombatState(scenario.getLeftTeam().size() + scenario.getRightTeam().size());
+        this.projectiles = new ProjectileSystem(state, this.panelSize, stepMs,
+                scenario.getMode() == BattleMode.REPLAY, this::laserHit);
         setupParticipants();
 
         if (scenario.getMode() != BattleMode.REPLAY) {
-            logEvent("START", Map.of());
+            logEvent(EventType.START);
+        } else {
+            initialCheckpoint = captureCheckpoint(0);
         }
     }
 
@@ -72,8 +122,27 @@ public class BattleEngine {
         return Collections.unmodifiableList(participants);
     }
 
+    /**
+     * Снаряди в польоті (лише для читання). В аналітичному режимі порожньо — влучання розраховані наперед.
+     */
     public List<LaserProjectile> getProjectiles() {
-        return projectiles;
+        return projectiles.inFlight();
+    }
+
+    /**
+     * Аналітичний режим снарядів для прогонів без вікна.
+     *
+     * Крок влучання рахується одразу при пострілі (LaserProjectile.stepsToImpact) і
+     * перераховується, якщо ціль телепортувалась; промахи не створюються взагалі.
+     * Події й HP ті самі, що й при покроковому польоті, але знімки стану не містять
+     * промахів у польоті. Вмикати до початку бою; у реплеї не діє.
+     */
+    public void setAnalyticProjectiles(boolean analytic) {
+        projectiles.setAnalytic(analytic);
+    }
+
+    public boolean isAnalyticProjectiles() {
+        return projectiles.isAnalytic();
     }
 
     public boolean isFinished() {
@@ -92,41 +161,197 @@ public class BattleEngine {
         return elapsedMs;
     }
 
+    /**
+     * Скільки шкоди завдала сторона за бій.
+     */
+    public long getDamageDealt(BattleSide side) {
+        return damageDealt[side.ordinal()];
+    }
+
     public void setManualTarget(int attackerId, int targetId) {
-        manualTargets.put(attackerId, targetId);
+        int slot = state.slotOf(attackerId);
+        if (slot != CombatState.NO_SLOT) {
+            state.manualTarget[slot] = state.slotOf(targetId);
+        }
         if (scenario.getMode() != BattleMode.REPLAY) {
-            logEvent("TARGET_SET", Map.of(
-                    "attacker", String.valueOf(attackerId),
-                    "target", String.valueOf(targetId)
-            ));
+            logEvent(EventType.TARGET_SET, attackerId, targetId);
         }
     }
 
     public Integer getManualTarget(int attackerId) {
-        return manualTargets.get(attackerId);
+        int slot = state.slotOf(attackerId);
+        if (slot == CombatState.NO_SLOT) return null;
+        int target = state.manualTarget[slot];
+        return (target == CombatState.NO_SLOT) ? null : state.ids[target];
     }
 
     public Map<Integer, Integer> getManualTargetsSnapshot() {
-        return new HashMap<>(manualTargets);
+        Map<Integer, Integer> result = new HashMap<>();
+        for (int slot = 0; slot < state.size(); slot++) {
+            int target = state.manualTarget[slot];
+            if (target != CombatState.NO_SLOT) result.put(state.ids[slot], state.ids[target]);
+        }
+        return result;
+    }
+
+    public SimulationClock getClock() {
+        return clock;
+    }
+
+    public long getStepMs() {
+        return stepMs;
+    }
+
+    /**
+     * Як часто писати у лог знімки стану (0 — не писати).
+     */
+    public void setCheckpointIntervalMs(long intervalMs) {
+        this.checkpointIntervalMs = Math.max(0, intervalMs);
+        this.nextCheckpointMs = elapsedMs + checkpointIntervalMs;
+    }
+
+    public long getCheckpointIntervalMs() {
+        return checkpointIntervalMs;
+    }
+
+    /**
+     * Тривалість реплею — час останньої події логу.
+     */
+    public long getReplayDurationMs() {
+        int count = log.getEventCount();
+        return (count == 0) ? 0 : log.getEventTime(count - 1);
+    }
+
+    /**
+     * Окремий знімок для відмалювання (новий обʼєкт, належить викликачу). Кадри анімації
+     * беруться за годинником бою; викликати його має той самий потік, що й update().
+     */
+    public FrameSnapshot snapshot() {
+        FrameSnapshot snap = new FrameSnapshot();
+        snapshotInto(snap, 0);
+        return snap;
+    }
+
+    /**
+     * Перезаповнює готовий знімок поточним станом (без нових обʼєктів, коли знімок уже «розігрітий»).
+     */
+    void snapshotInto(FrameSnapshot snap, long sequence) {
+        snap.begin(sequence, elapsedMs, System.nanoTime(), stepMs, finished);
+        for (int i = 0; i < participants.size(); i++) {
+            BattleParticipant p = participants.get(i);
+            Droid d = p.getDroid();
+            boolean mirror = (p.getSide() == BattleSide.RIGHT);
+            Boolean override = d.getMirrorOverride();
+            if (override != null) mirror = override;
+            d.setMirrored(mirror);
+
+            Image frame = d.getCurrentFrameImage();
+            int w = Math.max(1, frame.getWidth(null));
+            int h = Math.max(1, frame.getHeight(null));
+            snap.addDroid().set(d.getId(), d.getName(), d.getModel(), p.getSide(),
+                    d.getXPosition(), d.getYPosition(), w, h,
+                    d.getHealth(), d.getMaxHealth(), d.isAlive(), mirror, frame);
+        }
+
+        List<LaserProjectile> inFlight = projectiles.inFlight();
+        for (int i = 0; i < inFlight.size(); i++) {
+            LaserProjectile p = inFlight.get(i);
+            if (!p.isActive()) continue;
+            snap.addProjectile().set(p.getX(), p.getY(), p.getVx(), p.getVy(), p.getWidth(), p.getHeight());
+        }
     }
 
     public void update(long deltaMs) {
         if (finished) return;
         if (deltaMs < 0) deltaMs = 0;
+
+        accumulatorMs += deltaMs;
+        while (accumulatorMs >= stepMs && !finished) {
+            accumulatorMs -= stepMs;
+            step(stepMs);
+        }
+    }
+
+    /**
+     * Проганяє бій до кінця без вікна, перестрибуючи «порожні» кроки.
+     *
+     * Кроки лишаються тими самими, що й в update(), але ті, на яких нічого не стається
+     * (лише спливають кулдауни й летять снаряди), пропускаються одним махом до найближчого
+     * кроку з подією: кінця кулдауну, запланованої дії, влучання снаряда, знімка стану чи таймауту.
+     * Тому лог подій збігається з покроковим прогоном. Реплей програється покроково.
+     *
+     * @return скільки кроків справді виконано
+     */
+    public int runToFinish() {
+        int iterations = 0;
+        while (!finished) {
+            if (scenario.getMode() != BattleMode.REPLAY) {
+                long idle = stepsUntilNextEvent() - 1;
+                if (idle > 0) skipIdleSteps(idle);
+            }
+            step(stepMs);
+            iterations++;
+        }
+        return iterations;
+    }
+
+    // Номер (від 1) найближчого кроку, на якому щось може статися
+    private long stepsUntilNextEvent() {
+        long next = stepsUntil(scheduler.nextDueMs());
+        next = Math.min(next, stepsUntil(TIMEOUT_MS + 1));
+        if (checkpointIntervalMs > 0) {
+            next = Math.min(next, stepsUntil(nextCheckpointMs));
+        }
+
+        int[] hp = state.hp;
+        boolean[] locked = state.locked;
+        long[] cooldownMs = state.cooldownMs;
+        for (int slot = 0, n = state.size(); slot < n && next > 1; slot++) {
+            if (hp[slot] <= 0 || locked[slot]) continue;
+            long cd = cooldownMs[slot];
+            next = Math.min(next, (cd <= 0) ? 1 : (cd + stepMs - 1) / stepMs);
+        }
+
+        if (next > 1) next = projectiles.stepsUntilImpact(next);
+        return Math.min(next, stepsUntil(projectiles.nextImpactMs()));
+    }
+
+    // Перший крок, після якого elapsedMs >= timeMs
+    private long stepsUntil(long timeMs) {
+        if (timeMs == Long.MAX_VALUE) return Long.MAX_VALUE;
+        long left = timeMs - elapsedMs;
+        return (left <= 0) ? 1 : (left + stepMs - 1) / stepMs;
+    }
+
+    // steps кроків, на яких гарантовано нічого не відбувається (див. runToFinish)
+    private void skipIdleSteps(long steps) {
+        long ms = steps * stepMs;
+        elapsedMs += ms;
+        clock.advance(ms);
+
+        int[] hp = state.hp;
+        boolean[] locked = state.locked;
+        long[] cooldownMs = state.cooldownMs;
+        for (int slot = 0, n = state.size(); slot < n; slot++) {
+            if (hp[slot] <= 0 || locked[slot]) continue;
+            cooldownMs[slot] -= ms;
+        }
+        projectiles.advance(steps);
+    }
+
+    private void step(long deltaMs) {
         elapsedMs += deltaMs;
+        clock.advance(deltaMs);
 
         // 1) Відтворення подій (replay)
         if (scenario.getMode() == BattleMode.REPLAY) {
             processReplayEvents();
         }
 
-        // 2) Tick запланованих дій
-        tickScheduled(deltaMs);
+        // 2) Заплановані дії, час яких настав
+        scheduler.runDue(elapsedMs);
 
-        // 3) Оновлення анімацій
-        for (BattleParticipant _ : participants) {
-            // Animation update is handled internally by Droid state changes
-        }
+        // 3) Анімації оновлюються самими дроїдами за годинником бою
 
         // 4) Оновлення снарядів
         updateProjectiles(deltaMs);
@@ -138,27 +363,122 @@ public class BattleEngine {
 
         // 6) Перевірка завершення бою
         checkFinishByDeathOrTimeout();
+
+        // 7) Знімок стану для перемотки реплею
+        if (scenario.getMode() != BattleMode.REPLAY && !finished
+                && checkpointIntervalMs > 0 && elapsedMs >= nextCheckpointMs) {
+            log.addCheckpoint(captureCheckpoint(log.getEventCount()));
+            nextCheckpointMs = elapsedMs + checkpointIntervalMs;
+        }
+    }
+
+    // --------- Checkpoints / seek ---------
+
+    private BattleCheckpoint captureCheckpoint(int eventIndex) {
+        List<BattleCheckpoint.DroidState> droids = new ArrayList<>(state.size());
+        for (int slot = 0; slot < state.size(); slot++) {
+            Boolean override = state.droid(slot).getMirrorOverride();
+            droids.add(new BattleCheckpoint.DroidState(state.ids[slot], state.hp[slot], state.energy[slot],
+                    state.x[slot], state.y[slot], state.locked[slot],
+                    (override == null) ? -1 : (override ? 1 : 0)));
+        }
+        List<BattleCheckpoint.ProjectileState> shots = projectiles.capture(elapsedMs);
+        return new BattleCheckpoint(elapsedMs, eventIndex,
+                damageDealt[BattleSide.LEFT.ordinal()], damageDealt[BattleSide.RIGHT.ordinal()],
+                droids, shots);
+    }
+
+    /**
+     * Перемотує реплей на момент targetMs (вперед або назад).
+     * Відновлює найближчий знімок стану і програє від нього лише решту подій,
+     * тож довгий бій не треба відтворювати з початку.
+     */
+    public void seekTo(long targetMs) {
+        if (scenario.getMode() != BattleMode.REPLAY) {
+            throw new IllegalStateException("Перемотка доступна лише у режимі реплею");
+        }
+        long target = Math.max(0, targetMs);
+
+        BattleCheckpoint cp = log.checkpointAtOrBefore(target);
+        if (cp == null) cp = initialCheckpoint;
+        if (target < elapsedMs || cp.timeMs() > elapsedMs) {
+            restore(cp);
+        }
+
+        accumulatorMs = 0;
+        while (!finished && elapsedMs + stepMs <= target) {
+            step(stepMs);
+        }
+    }
+
+    private void restore(BattleCheckpoint cp) {
+        scheduler.clear();
+        state.clearLocks();
+        projectiles.clear();
+        clock.reset(cp.timeMs());
+
+        // анімації, заплановані до знімка, не зберігаються — дроїди стартують з idle
+        for (BattleCheckpoint.DroidState s : cp.droids()) {
+            int slot = state.slotOf(s.id());
+            if (slot == CombatState.NO_SLOT) continue;
+            Droid d = state.droid(slot);
+            d.resetForBattle();
+            d.setHealth(s.health());
+            d.setEnergyLevel(s.energy());
+            d.setPosition(s.x(), s.y());
+            d.setMirrorOverride(s.mirrorOverride() < 0 ? null : s.mirrorOverride() == 1);
+            state.syncHealth(slot);
+            state.syncEnergy(slot);
+            state.syncPosition(slot);
+            state.locked[slot] = s.locked();
+        }
+        for (HealthHeap heap : healthBySide) {
+            heap.clear();
+        }
+        for (int slot = 0; slot < state.size(); slot++) {
+            if (state.isAlive(slot)) healthBySide[state.side[slot]].add(slot);
+        }
+
+        for (BattleCheckpoint.ProjectileState s : cp.projectiles()) {
+            projectiles.spawn(s.x(), s.y(), s.vx(), s.vy(),
+                    s.attackerId(), s.targetId(), s.willHit(), s.damage());
+        }
+
+        damageDealt[BattleSide.LEFT.ordinal()] = cp.damageLeft();
+        damageDealt[BattleSide.RIGHT.ordinal()] = cp.damageRight();
+        elapsedMs = cp.timeMs();
+        replayCursor = cp.eventIndex();
+        finished = false;
+        result = null;
     }
 
     // --------- Setup ---------
 
     private void setupParticipants() {
         participants.clear();
-        byId.clear();
         projectiles.clear();
-        cooldownMs.clear();
-        scheduled.clear();
-        manualTargets.clear();
-        lockedActors.clear();
+        scheduler.clear();
+        clock.reset();
 
-        int approxW = approximateSpriteWidth();
+        // власні дроїди цього бою — описи зі сценарію не змінюються
+        List<Droid> left = newCombatInstances(scenario.getLeftTeam());
+        List<Droid> right = newCombatInstances(scenario.getRightTeam());
+        int approxW = approximateSpriteWidth(left, right);
 
-        List<Droid> left = scenario.getLeftTeam();
-        List<Droid> right = scenario.getRightTeam();
+        int total = left.size() + right.size();
+        for (BattleSide side : BattleSide.values()) {
+            healthBySide[side.ordinal()] = new HealthHeap(state, total);
+        }
 
-        // Reset дроїдів
-        for (Droid d : left) d.resetForBattle();
-        for (Droid d : right) d.resetForBattle();
+        // Анімація йде за годинником цього бою
+        for (Droid d : left) {
+            d.setClock(clock);
+            d.resetForBattle();
+        }
+        for (Droid d : right) {
+            d.setClock(clock);
+            d.resetForBattle();
+        }
 
         // Розставляємо позиції
         List<Point> leftPos = BattleLayout.positionsFor(BattleSide.LEFT, left.size(), panelSize, approxW);
@@ -168,13 +488,12 @@ public class BattleEngine {
             Droid d = left.get(i);
             Point pt = leftPos.get(i);
             d.setPosition(pt.x, pt.y);
-            d.setState("idle");
+            d.setState(AnimationState.IDLE);
 
             BattleParticipant bp = new BattleParticipant(d, BattleSide.LEFT, pt.x, pt.y);
+            int slot = state.add(bp, initialCooldownFor(d));
             participants.add(bp);
-            byId.put(d.getId(), bp);
-
-            cooldownMs.put(d.getId(), initialCooldownFor(d));
+            healthBySide[BattleSide.LEFT.ordinal()].add(slot);
 
             if (scenario.getMode() != BattleMode.REPLAY) {
                 log.addParticipant(new DroidEntry(d.getId(), d.getName(), d.getType(), BattleSide.LEFT));
@@ -185,33 +504,34 @@ public class BattleEngine {
             Droid d = right.get(i);
             Point pt = rightPos.get(i);
             d.setPosition(pt.x, pt.y);
-            d.setState("idle");
+            d.setState(AnimationState.IDLE);
 
             BattleParticipant bp = new BattleParticipant(d, BattleSide.RIGHT, pt.x, pt.y);
+            int slot = state.add(bp, initialCooldownFor(d));
             participants.add(bp);
-            byId.put(d.getId(), bp);
-
-            cooldownMs.put(d.getId(), initialCooldownFor(d));
+            healthBySide[BattleSide.RIGHT.ordinal()].add(slot);
 
             if (scenario.getMode() != BattleMode.REPLAY) {
                 log.addParticipant(new DroidEntry(d.getId(), d.getName(), d.getType(), BattleSide.RIGHT));
             }
         }
+        state.indexIds();
     }
 
-    private int approximateSpriteWidth() {
-        for (BattleParticipant p : participants) {
-            Image img = p.getDroid().getCurrentFrameImage();
-            if (img != null && img.getWidth(null) > 0) {
-                return img.getWidth(null);
-            }
+    private static List<Droid> newCombatInstances(List<DroidBlueprint> team) {
+        List<Droid> droids = new ArrayList<>(team.size());
+        for (DroidBlueprint bp : team) {
+            droids.add(bp.newCombatInstance());
         }
-        // якщо participants ще порожній — подивимося у сценарії
-        for (Droid d : scenario.getLeftTeam()) {
+        return droids;
+    }
+
+    private static int approximateSpriteWidth(List<Droid> left, List<Droid> right) {
+        for (Droid d : left) {
             Image img = d.getCurrentFrameImage();
             if (img != null && img.getWidth(null) > 0) return img.getWidth(null);
         }
-        for (Droid d : scenario.getRightTeam()) {
+        for (Droid d : right) {
             Image img = d.getCurrentFrameImage();
             if (img != null && img.getWidth(null) > 0) return img.getWidth(null);
         }
@@ -226,209 +546,124 @@ public class BattleEngine {
     // --------- Replay ---------
 
     private void processReplayEvents() {
-        while (!replayEvents.isEmpty() && replayEvents.peekFirst().getTimeMs() <= elapsedMs) {
-            BattleEvent e = replayEvents.removeFirst();
-            applyReplayEvent(e);
+        int count = log.getEventCount();
+        while (replayCursor < count && log.getEventTime(replayCursor) <= elapsedMs) {
+            applyReplayEvent(replayCursor);
+            replayCursor++;
         }
     }
 
-    private void applyReplayEvent(BattleEvent e) {
-        String type = e.getType();
-        Map<String, String> d = e.getData();
+    private void applyReplayEvent(int i) {
+        EventType type = log.getEventType(i);
+        if (type == null) return; // ігноруємо невідомі
+
+        // поля у порядку EventType.getFields()
+        int f0 = log.getEventField(i, 0);
+        int f1 = log.getEventField(i, 1);
+        int f2 = log.getEventField(i, 2);
+        int f3 = log.getEventField(i, 3);
 
         switch (type) {
-            case "LASER_SHOT" -> {
-                int attackerId = Integer.parseInt(d.getOrDefault("attacker", "0"));
-                int targetId = Integer.parseInt(d.getOrDefault("target", "0"));
-                boolean hit = Boolean.parseBoolean(d.getOrDefault("hit", "true"));
-                int dmg = Integer.parseInt(d.getOrDefault("damage", "0"));
-                fireLaser(attackerId, targetId, hit, dmg, true);
-            }
-            case "LASER_HIT" -> {
-                int attackerId = Integer.parseInt(d.getOrDefault("attacker", "0"));
-                int targetId = Integer.parseInt(d.getOrDefault("target", "0"));
-                int dmg = Integer.parseInt(d.getOrDefault("damage", "0"));
-                applyDirectDamage(attackerId, targetId, dmg, true);
+            case LASER_SHOT -> fireLaser(f0, f1, f2 != 0, f3, true);
+            case LASER_HIT -> {
+                int attackerId = f0;
+                int targetId = f1;
+                applyDirectDamage(attackerId, targetId, f2, true);
                 // прибʼємо перший активний снаряд attacker->target (щоб виглядало природно)
-                for (LaserProjectile p : projectiles) {
-                    if (p.isActive() && p.getAttackerId() == attackerId && p.getTargetId() == targetId) {
-                        p.deactivate();
-                        break;
-                    }
-                }
+                projectiles.removeFirst(attackerId, targetId);
             }
-            case "HEAL_START" -> {
-                int healerId = Integer.parseInt(d.getOrDefault("healer", "0"));
-                BattleParticipant healer = byId.get(healerId);
+            case HEAL_START -> {
+                BattleParticipant healer = participantById(f0);
                 if (healer != null) healer.getDroid().healState();
             }
-            case "HEAL_APPLY" -> {
-                int healerId = Integer.parseInt(d.getOrDefault("healer", "0"));
-                int targetId = Integer.parseInt(d.getOrDefault("target", "0"));
-                int amount = Integer.parseInt(d.getOrDefault("amount", "0"));
-                BattleParticipant target = byId.get(targetId);
+            case HEAL_APPLY -> {
+                BattleParticipant target = participantById(f1);
                 if (target != null) {
-                    target.getDroid().heal(amount);
-                    target.getDroid().setState("idle");
+                    target.getDroid().heal(f2);
+                    healthChanged(target);
+                    target.getDroid().setState(AnimationState.IDLE);
                 }
-                BattleParticipant healer = byId.get(healerId);
-                if (healer != null) healer.getDroid().setState("idle");
-            }
-            case "PHANTOM_APPEAR" -> {
-                int phantomId = Integer.parseInt(d.getOrDefault("phantom", "0"));
-                int targetId = Integer.parseInt(d.getOrDefault("target", "0"));
-                teleportPhantomBehind(phantomId, targetId);
+                BattleParticipant healer = participantById(f0);
+                if (healer != null) healer.getDroid().setState(AnimationState.IDLE);
             }
-            case "PHANTOM_STRIKE" -> {
-                int phantomId = Integer.parseInt(d.getOrDefault("phantom", "0"));
-                int targetId = Integer.parseInt(d.getOrDefault("target", "0"));
-                int dmg = Integer.parseInt(d.getOrDefault("damage", "0"));
-                BattleParticipant ph = byId.get(phantomId);
+            case PHANTOM_APPEAR -> teleportPhantomBehind(f0, f1);
+            case PHANTOM_STRIKE -> {
+                BattleParticipant ph = participantById(f0);
                 if (ph != null) ph.getDroid().attack();
-                applyDirectDamage(phantomId, targetId, dmg, true);
+                applyDirectDamage(f0, f1, f2, true);
             }
-            case "PHANTOM_RETURN" -> {
-                int phantomId = Integer.parseInt(d.getOrDefault("phantom", "0"));
-                returnPhantomToBase(phantomId);
-            }
-            case "DROID_DEFEATED" -> {
-                int id = Integer.parseInt(d.getOrDefault("id", "0"));
-                BattleParticipant bp = byId.get(id);
+            case PHANTOM_RETURN -> returnPhantomToBase(f0);
+            case DROID_DEFEATED -> {
+                BattleParticipant bp = participantById(f0);
                 if (bp != null) {
                     bp.getDroid().setHealth(0);
                     bp.getDroid().die();
+                    healthChanged(bp);
+                    scheduler.cancelOwner(f0);
                 }
             }
-            case "WIN" -> {
-                String sideStr = d.getOrDefault("winner", "LEFT");
-                BattleSide side = BattleSide.valueOf(sideStr);
-                finish(side);
-            }
+            case WIN -> finish(BattleSide.values()[f0]);
             default -> {
-                // ігноруємо невідомі
+                // START, TARGET_SET, STATS — стан не змінюють
             }
         }
     }
 
     // --------- Core loop ---------
 
-    private void tickScheduled(long deltaMs) {
-        if (scheduled.isEmpty()) return;
-
-        // Проходимо по знімку, щоб не ловити ConcurrentModification під час додавання нових задач із run()
-        List<ScheduledAction> snapshot = new ArrayList<>(scheduled);
-        for (ScheduledAction a : snapshot) {
-            a.tick(deltaMs);
-            if (a.isReady()) {
-                a.run();
-                scheduled.remove(a);
-            }
-        }
+    void updateProjectiles(long deltaMs) {
+        projectiles.update(deltaMs, elapsedMs);
     }
 
-    private void updateProjectiles(long deltaMs) {
-        if (projectiles.isEmpty()) return;
-        int w = panelSize.width;
-        int h = panelSize.height;
-
-        for (LaserProjectile p : projectiles) {
-            if (!p.isActive()) continue;
-            p.update(deltaMs);
-
-            Rectangle b = p.getBounds();
-            if (b.x < -100 || b.x > w + 100 || b.y < -100 || b.y > h + 100) {
-                p.deactivate();
-                continue;
-            }
-
-            if (scenario.getMode() == BattleMode.REPLAY) {
-                // у реплеї шкода застосовується по EVENT-ам
-                continue;
-            }
-
-            if (!p.willHit()) {
-                // пролітає повз
-                continue;
-            }
+    /**
+     * Снаряд у польоті в обхід пострілу (через пул снарядів бою) — для бенчмарків.
+     */
+    void spawnProjectile(double x, double y, double vx, double vy,
+                         int attackerId, int targetId, boolean hit, int damage) {
+        projectiles.spawn(x, y, vx, vy, attackerId, targetId, hit, damage);
+    }
 
-            if (p.isApplied()) {
-                continue;
-            }
+    // Влучання снаряда (покрокове чи аналітичне) — шкода і подія в лог
+    private void laserHit(LaserProjectile p, Droid target) {
+        applyDirectDamage(p.getAttackerId(), p.getTargetId(), p.getPlannedDamage(), false);
+        logEvent(EventType.LASER_HIT, p.getAttackerId(), p.getTargetId(), p.getPlannedDamage(), target.getHealth());
+    }
 
-            BattleParticipant targetP = byId.get(p.getTargetId());
-            if (targetP == null) continue;
-            Droid target = targetP.getDroid();
-            if (!target.isAlive()) {
-                p.deactivate();
+    private void tickAIAndActions(long deltaMs) {
+        int[] hp = state.hp;
+        boolean[] locked = state.locked;
+        long[] cooldownMs = state.cooldownMs;
+        for (int slot = 0, n = state.size(); slot < n; slot++) {
+            // мертві та заблоковані під час «довгих» дій не діють
+            if (hp[slot] <= 0 || locked[slot]) continue;
+
+            long cd = cooldownMs[slot] - deltaMs;
+            if (cd > 0) {
+                cooldownMs[slot] = cd;
                 continue;
             }
-
-            if (p.getBounds().intersects(target.getBounds())) {
-                p.markApplied();
-                p.deactivate();
-                applyDirectDamage(p.getAttackerId(), p.getTargetId(), p.getPlannedDamage(), false);
-
-                logEvent("LASER_HIT", Map.of(
-                        "attacker", String.valueOf(p.getAttackerId()),
-                        "target", String.valueOf(p.getTargetId()),
-                        "damage", String.valueOf(p.getPlannedDamage()),
-                        "targetHealth", String.valueOf(target.getHealth())
-                ));
-            }
+            act(slot);
         }
-
-        // чистимо неактивні
-        projectiles.removeIf(p -> !p.isActive());
     }
 
-    private void tickAIAndActions(long deltaMs) {
-        for (BattleParticipant bp : participants) {
-            Droid d = bp.getDroid();
-            if (!d.isAlive()) continue;
+    // Дія учасника, у якого скінчився кулдаун
+    private void act(int slot) {
+        BattleParticipant bp = state.participant(slot);
+        Droid d = bp.getDroid();
+        DroidType type = d.getType();
 
-            int id = d.getId();
-
-            // блокування під час «довгих» дій
-            if (lockedActors.contains(id)) continue;
-
-            long cd = cooldownMs.getOrDefault(id, 0L);
-            cd -= deltaMs;
-            if (cd > 0) {
-                cooldownMs.put(id, cd);
-                continue;
+        if (type == DroidType.PHANTOM) {
+            Droid target = selectTargetFor(bp);
+            if (target != null) {
+                startPhantomSequence((Phantom) d, bp, target);
             }
-
-            if (null == d.getType()) {
-                Droid target = selectTargetFor(bp);
-                if (target != null) {
-                    fireLaser(d.getId(), target.getId(), decideHit(d), computeDamage(d), false);
-                }
-                cooldownMs.put(id, cooldownAfter(d));
-            } else // Вирішуємо дію
-            switch (d.getType()) {
-                case MEDICOR -> {
-                    boolean healed = tryHeal((Medicor) d, bp.getSide());
-                    if (!healed) {
-                        Droid target = selectTargetFor(bp);
-                        if (target != null) {
-                            fireLaser(d.getId(), target.getId(), decideHit(d), computeDamage(d), false);
-                        }
-                    }   cooldownMs.put(id, cooldownAfter(d));
-                }
-                case PHANTOM ->                     {
-                        Droid target = selectTargetFor(bp);
-                        if (target != null) {
-                            startPhantomSequence((Phantom) d, bp, target);
-                        }       cooldownMs.put(id, cooldownAfter(d));
-                    }
-                default ->                     {
-                        Droid target = selectTargetFor(bp);
-                        if (target != null) {
-                            fireLaser(d.getId(), target.getId(), decideHit(d), computeDamage(d), false);
-                        }       cooldownMs.put(id, cooldownAfter(d));
-                    }
+        } else if (type != DroidType.MEDICOR || !tryHeal((Medicor) d, slot)) {
+            Droid target = selectTargetFor(bp);
+            if (target != null) {
+                fireLaser(d.getId(), target.getId(), decideHit(d), computeDamage(d), false);
             }
         }
+        state.cooldownMs[slot] = cooldownAfter(d);
     }
 
     private long cooldownAfter(Droid d) {
@@ -452,154 +687,167 @@ public class BattleEngine {
         return Math.max(1, base - spread + rnd.nextInt(spread * 2 + 1));
     }
 
-    private Droid selectTargetFor(BattleParticipant attackerP) {
+    Droid selectTargetFor(BattleParticipant attackerP) {
         BattleSide attackerSide = attackerP.getSide();
         BattleSide enemySide = (attackerSide == BattleSide.LEFT) ? BattleSide.RIGHT : BattleSide.LEFT;
 
         // Team-vs-team: ліва сторона може мати ручні цілі
         if (scenario.getMode() == BattleMode.TEAM_VS_TEAM && attackerSide == BattleSide.LEFT) {
-            Integer manual = manualTargets.get(attackerP.getDroid().getId());
-            if (manual != null) {
-                BattleParticipant targetP = byId.get(manual);
-                if (targetP != null && targetP.getSide() == enemySide && targetP.getDroid().isAlive()) {
-                    return targetP.getDroid();
-                }
+            int manual = state.manualTarget[attackerP.getSlot()];
+            if (manual != CombatState.NO_SLOT && state.side[manual] == enemySide.ordinal() && state.isAlive(manual)) {
+                return state.droid(manual);
             }
         }
 
         // AI: обираємо найслабшого живого
-        Droid best = null;
-        double bestScore = Double.MAX_VALUE;
-        for (BattleParticipant p : participants) {
-            if (p.getSide() != enemySide) continue;
-            Droid d = p.getDroid();
-            if (!d.isAlive()) continue;
-            double score = (double) d.getHealth() / (double) d.getMaxHealth();
-            if (score < bestScore) {
-                bestScore = score;
-                best = d;
-            }
-        }
-        return best;
+        int weakest = healthBySide[enemySide.ordinal()].peek();
+        return (weakest != CombatState.NO_SLOT) ? state.droid(weakest) : null;
     }
 
-    private boolean tryHeal(Medicor medicor, BattleSide side) {
+    private boolean tryHeal(Medicor medicor, int slot) {
         if (!medicor.canHealAllies()) return false;
-        if (medicor.getEnergyLevel() < medicor.getHealEnergyCost()) return false;
-
-        // шукаємо союзника з найнижчим відсотком HP
-        Droid target = null;
-        double bestScore = 1.0;
-        for (BattleParticipant p : participants) {
-            if (p.getSide() != side) continue;
-            Droid d = p.getDroid();
-            if (!d.isAlive()) continue;
-            double ratio = (double) d.getHealth() / (double) d.getMaxHealth();
-            if (ratio < bestScore) {
-                bestScore = ratio;
-                target = d;
-            }
-        }
+        if (state.energy[slot] < medicor.getHealEnergyCost()) return false;
 
-        if (target == null) return false;
-        if (bestScore > 0.85) return false; // якщо всі майже full HP — не лікуємо
+        int targetSlot = healTargetSlot(state.sideOf(slot));
+        if (targetSlot == CombatState.NO_SLOT) return false;
 
         // «підʼїхати та лікувати» — робимо heal state + delayed apply
         int healAmount = medicor.getHealAmount();
         int cost = medicor.getHealEnergyCost();
 
-        // для лямбд робимо final посилання
-        final Droid healTarget = target;
-        final int healAmountFinal = healAmount;
-
-        lockedActors.add(medicor.getId());
+        state.locked[slot] = true;
         medicor.setEnergyLevel(medicor.getEnergyLevel() - cost);
+        state.syncEnergy(slot);
         medicor.healState();
 
-        logEvent("HEAL_START", Map.of(
-                "healer", String.valueOf(medicor.getId()),
-                "target", String.valueOf(healTarget.getId())
-        ));
-
-        scheduled.add(new ScheduledAction(450, () -> {
-            if (medicor.isAlive() && healTarget.isAlive()) {
-                int healed = healTarget.heal(healAmountFinal);
-                logEvent("HEAL_APPLY", Map.of(
-                        "healer", String.valueOf(medicor.getId()),
-                        "target", String.valueOf(healTarget.getId()),
-                        "amount", String.valueOf(healed),
-                        "targetHealth", String.valueOf(healTarget.getHealth())
-                ));
-                healTarget.setState("idle");
-            }
-        }));
+        logEvent(EventType.HEAL_START, medicor.getId(), state.ids[targetSlot]);
 
-        scheduled.add(new ScheduledAction(800, () -> {
-            medicor.setState("idle");
-            lockedActors.remove(medicor.getId());
-        }));
+        schedule(450, medicor.getId(), ACTION_HEAL_APPLY, slot, targetSlot, healAmount);
+        schedule(800, medicor.getId(), ACTION_HEAL_END, slot, 0, 0);
 
         return true;
     }
 
-    private void startPhantomSequence(Phantom phantom, @SuppressWarnings("unused") BattleParticipant phantomP, Droid target) {
+    /**
+     * Союзник з найнижчим відсотком HP або null, якщо всі майже з повним HP.
+     */
+    Droid selectHealTarget(BattleSide side) {
+        int slot = healTargetSlot(side);
+        return (slot == CombatState.NO_SLOT) ? null : state.droid(slot);
+    }
+
+    private int healTargetSlot(BattleSide side) {
+        int weakest = healthBySide[side.ordinal()].peek();
+        if (weakest == CombatState.NO_SLOT) return CombatState.NO_SLOT;
+
+        double ratio = (double) state.hp[weakest] / (double) state.maxHp[weakest];
+        if (ratio > 0.85) return CombatState.NO_SLOT; // якщо всі майже full HP — не лікуємо
+        return weakest;
+    }
+
+    /**
+     * Перераховує місце дроїда в купі HP після зміни здоровʼя поза двигуном.
+     */
+    void onHealthChanged(int droidId) {
+        int slot = state.slotOf(droidId);
+        if (slot != CombatState.NO_SLOT) healthChanged(slot);
+    }
+
+    private void healthChanged(BattleParticipant bp) {
+        healthChanged(bp.getSlot());
+    }
+
+    private void healthChanged(int slot) {
+        state.syncHealth(slot);
+        healthBySide[state.side[slot]].update(slot);
+    }
+
+    private BattleParticipant participantById(int droidId) {
+        int slot = state.slotOf(droidId);
+        return (slot == CombatState.NO_SLOT) ? null : state.participant(slot);
+    }
+
+    private void startPhantomSequence(Phantom phantom, BattleParticipant phantomP, Droid target) {
         int pid = phantom.getId();
-        if (lockedActors.contains(pid)) return;
+        int slot = phantomP.getSlot();
+        if (state.locked[slot]) return;
 
-        lockedActors.add(pid);
+        state.locked[slot] = true;
 
-        logEvent("PHANTOM_APPEAR", Map.of(
-                "phantom", String.valueOf(pid),
-                "target", String.valueOf(target.getId())
-        ));
+        logEvent(EventType.PHANTOM_APPEAR, pid, target.getId());
 
         teleportPhantomBehind(pid, target.getId());
 
         long delay = phantom.getAppearToStrikeDelayMs();
-        scheduled.add(new ScheduledAction(delay, () -> {
-            if (!phantom.isAlive()) return;
-            if (!target.isAlive()) {
-                returnPhantomToBase(pid);
-                lockedActors.remove(pid);
-                return;
-            }
-            phantom.attack();
-            int dmg = computeDamage(phantom);
+        schedule(delay, pid, ACTION_PHANTOM_STRIKE, slot, state.slotOf(target.getId()), 0);
+        // без власника: повернення на базу (і подія PHANTOM_RETURN) має відбутися навіть після загибелі
+        schedule(delay + 650, ActionScheduler.NO_OWNER, ACTION_PHANTOM_RETURN, slot, 0, 0);
+    }
 
-            logEvent("PHANTOM_STRIKE", Map.of(
-                    "phantom", String.valueOf(pid),
-                    "target", String.valueOf(target.getId()),
-                    "damage", String.valueOf(dmg)
-            ));
+    private void runAction(ScheduledAction action) {
+        int a = action.getA();
+        switch (action.getKind()) {
+            case ACTION_IDLE -> {
+                Droid d = state.droid(a);
+                if (d.isAlive()) d.setState(AnimationState.IDLE);
+            }
+            case ACTION_HEAL_APPLY -> {
+                Droid medicor = state.droid(a);
+                Droid target = state.droid(action.getB());
+                if (medicor.isAlive() && target.isAlive()) {
+                    int healed = target.heal(action.getC());
+                    healthChanged(action.getB());
+                    logEvent(EventType.HEAL_APPLY, medicor.getId(), target.getId(), healed, target.getHealth());
+                    target.setState(AnimationState.IDLE);
+                }
+            }
+            case ACTION_HEAL_END -> {
+                state.droid(a).setState(AnimationState.IDLE);
+                state.locked[a] = false;
+            }
+            case ACTION_PHANTOM_STRIKE -> {
+                Droid phantom = state.droid(a);
+                Droid target = state.droid(action.getB());
+                int pid = phantom.getId();
+                if (!phantom.isAlive()) return;
+                if (!target.isAlive()) {
+                    returnPhantomToBase(pid);
+                    state.locked[a] = false;
+                    return;
+                }
+                phantom.attack();
+                int dmg = computeDamage(phantom);
 
-            applyDirectDamage(pid, target.getId(), dmg, false);
-        }));
+                logEvent(EventType.PHANTOM_STRIKE, pid, target.getId(), dmg);
 
-        scheduled.add(new ScheduledAction(delay + 650, () -> {
-            returnPhantomToBase(pid);
-            phantom.setState("idle");
-            lockedActors.remove(pid);
+                applyDirectDamage(pid, target.getId(), dmg, false);
+            }
+            case ACTION_PHANTOM_RETURN -> {
+                Droid phantom = state.droid(a);
+                returnPhantomToBase(phantom.getId());
+                phantom.setState(AnimationState.IDLE);
+                state.locked[a] = false;
 
-            logEvent("PHANTOM_RETURN", Map.of(
-                    "phantom", String.valueOf(pid)
-            ));
-        }));
+                logEvent(EventType.PHANTOM_RETURN, phantom.getId());
+            }
+            default -> throw new IllegalStateException("Невідомий вид дії: " + action.getKind());
+        }
     }
 
     private void teleportPhantomBehind(int phantomId, int targetId) {
-        BattleParticipant phP = byId.get(phantomId);
-        BattleParticipant tP = byId.get(targetId);
+        BattleParticipant phP = participantById(phantomId);
+        BattleParticipant tP = participantById(targetId);
         if (phP == null || tP == null) return;
 
         Droid phantom = phP.getDroid();
         Droid target = tP.getDroid();
-        Rectangle tr = target.getBounds();
+        Rectangle tr = target.getBounds(boundsA);
 
         // behind = позаду противника. Для лівого противника (дивиться вправо) — behind зліва.
         // Для правого противника (віддзеркалений, дивиться вліво) — behind справа.
         boolean targetIsRight = (tP.getSide() == BattleSide.RIGHT);
 
-        Rectangle pr = phantom.getBounds();
+        Rectangle pr = phantom.getBounds(boundsB);
         int phantomW = Math.max(60, pr.width);
         int phantomH = Math.max(60, pr.height);
 
@@ -616,20 +864,24 @@ public class BattleEngine {
         // По вертикалі — вирівнюємо низом до цілі
         int y = tr.y + tr.height - phantomH;
         phantom.setPosition(x, y);
-        phantom.setState("idle");
+        state.syncPosition(phP.getSlot());
+        projectiles.targetMoved(phantom, elapsedMs);
+        phantom.setState(AnimationState.IDLE);
     }
 
     private void returnPhantomToBase(int phantomId) {
-        BattleParticipant phP = byId.get(phantomId);
+        BattleParticipant phP = participantById(phantomId);
         if (phP == null) return;
         Droid phantom = phP.getDroid();
         phantom.setPosition(phP.getBaseX(), phP.getBaseY());
+        state.syncPosition(phP.getSlot());
+        projectiles.targetMoved(phantom, elapsedMs);
         phantom.setMirrorOverride(null);
     }
 
     private void fireLaser(int attackerId, int targetId, boolean hit, int damage, boolean fromReplay) {
-        BattleParticipant attackerP = byId.get(attackerId);
-        BattleParticipant targetP = byId.get(targetId);
+        BattleParticipant attackerP = participantById(attackerId);
+        BattleParticipant targetP = participantById(targetId);
         if (attackerP == null || targetP == null) return;
 
         Droid attacker = attackerP.getDroid();
@@ -642,8 +894,8 @@ public class BattleEngine {
         attacker.attack();
 
         // Старт пострілу з верхньої частини спрайту
-        Rectangle ar = attacker.getBounds();
-        Rectangle tr = target.getBounds();
+        Rectangle ar = attacker.getBounds(boundsA);
+        Rectangle tr = target.getBounds(boundsB);
 
         double startX;
         double startY = ar.y + Math.max(10, ar.height * 0.2);
@@ -667,67 +919,54 @@ public class BattleEngine {
         double vx = speed * dx / len;
         double vy = speed * dy / len;
 
-        LaserProjectile p = new LaserProjectile(startX, startY, vx, vy, attackerId, targetId, hit, damage);
-        projectiles.add(p);
+        projectiles.fire(startX, startY, vx, vy, attackerId, target, hit, damage, elapsedMs, fromReplay);
 
         if (!fromReplay) {
-            logEvent("LASER_SHOT", Map.of(
-                    "attacker", String.valueOf(attackerId),
-                    "target", String.valueOf(targetId),
-                    "hit", String.valueOf(hit),
-                    "damage", String.valueOf(damage)
-            ));
+            logEvent(EventType.LASER_SHOT, attackerId, targetId, hit ? 1 : 0, damage);
         }
 
         // Повертаємо атакера в idle через короткий час
-        scheduled.add(new ScheduledAction(420, () -> {
-            if (attacker.isAlive()) attacker.setState("idle");
-        }));
+        schedule(420, attackerId, ACTION_IDLE, attackerP.getSlot(), 0, 0);
 
         // Якщо промах — просто не дамажимо, куля вилетить за екран
     }
 
     private void applyDirectDamage(int attackerId, int targetId, int damage, boolean fromReplay) {
-        BattleParticipant targetP = byId.get(targetId);
+        BattleParticipant targetP = participantById(targetId);
         if (targetP == null) return;
 
         Droid target = targetP.getDroid();
         if (!target.isAlive()) return;
 
         int applied = target.applyDamage(damage);
+        healthChanged(targetP);
+        BattleParticipant attackerP = participantById(attackerId);
+        if (attackerP != null) {
+            damageDealt[attackerP.getSide().ordinal()] += applied;
+        }
         if (target.isAlive()) {
             target.hit();
-            scheduled.add(new ScheduledAction(350, () -> {
-                if (target.isAlive()) target.setState("idle");
-            }));
+            schedule(350, targetId, ACTION_IDLE, targetP.getSlot(), 0, 0);
         } else {
             target.die();
+            scheduler.cancelOwner(targetId);
             if (!fromReplay) {
-                logEvent("DROID_DEFEATED", Map.of(
-                        "id", String.valueOf(targetId)
-                ));
+                logEvent(EventType.DROID_DEFEATED, targetId);
             }
         }
 
         if (!fromReplay) {
-            logEvent("STATS", Map.of(
-                    "target", String.valueOf(targetId),
-                    "targetHealth", String.valueOf(target.getHealth()),
-                    "attacker", String.valueOf(attackerId),
-                    "damageApplied", String.valueOf(applied)
-            ));
+            logEvent(EventType.STATS, targetId, target.getHealth(), attackerId, applied);
         }
     }
 
-    private void checkFinishByDeathOrTimeout() {
-        boolean leftAlive = false;
-        boolean rightAlive = false;
+    private void schedule(long delayMs, int ownerId, int kind, int a, int b, int c) {
+        scheduler.schedule(elapsedMs, delayMs, ownerId, kind, a, b, c);
+    }
 
-        for (BattleParticipant p : participants) {
-            if (!p.getDroid().isAlive()) continue;
-            if (p.getSide() == BattleSide.LEFT) leftAlive = true;
-            else rightAlive = true;
-        }
+    private void checkFinishByDeathOrTimeout() {
+        boolean leftAlive = !healthBySide[BattleSide.LEFT.ordinal()].isEmpty();
+        boolean rightAlive = !healthBySide[BattleSide.RIGHT.ordinal()].isEmpty();
 
         if (!leftAlive && rightAlive) {
             finish(BattleSide.RIGHT);
@@ -740,21 +979,13 @@ public class BattleEngine {
         }
 
         // таймаут, щоб бій не затягувався
-        if (elapsedMs > 60000) {
-            int leftHp = sumHp(BattleSide.LEFT);
-            int rightHp = sumHp(BattleSide.RIGHT);
+        if (elapsedMs > TIMEOUT_MS) {
+            int leftHp = state.sumHp(BattleSide.LEFT);
+            int rightHp = state.sumHp(BattleSide.RIGHT);
             finish(leftHp >= rightHp ? BattleSide.LEFT : BattleSide.RIGHT);
         }
     }
 
-    private int sumHp(BattleSide side) {
-        int sum = 0;
-        for (BattleParticipant p : participants) {
-            if (p.getSide() == side) sum += p.getDroid().getHealth();
-        }
-        return sum;
-    }
-
     private void finish(BattleSide winner) {
         if (finished) return;
 
@@ -767,22 +998,39 @@ public class BattleEngine {
         this.finished = true;
 
         if (scenario.getMode() != BattleMode.REPLAY) {
-            logEvent("WIN", Map.of(
-                    "winner", winner.toString()
-            ));
+            logEvent(EventType.WIN, winner.ordinal());
         }
     }
 
-    private void logEvent(String type, Map<String, String> data) {
+    private void logEvent(EventType type) {
+        logEvent(type, 0, 0, 0, 0);
+    }
+
+    private void logEvent(EventType type, int a) {
+        logEvent(type, a, 0, 0, 0);
+    }
+
+    private void logEvent(EventType type, int a, int b) {
+        logEvent(type, a, b, 0, 0);
+    }
+
+    private void logEvent(EventType type, int a, int b, int c) {
+        logEvent(type, a, b, c, 0);
+    }
+
+    /**
+     * Пише подію у лог примітивами (поля — у порядку EventType.getFields()).
+     */
+    private void logEvent(EventType type, int a, int b, int c, int d) {
         if (scenario.getMode() == BattleMode.REPLAY) return;
-        BattleEvent e = new BattleEvent(elapsedMs, type, data);
-        log.addEvent(e);
+        int index = log.append(elapsedMs, type, a, b, c, d);
+        if (!echoEvents) return;
 
         // «в реальному часі кудись записувати» — пишемо і в консоль теж
         StringBuilder sb = new StringBuilder();
         sb.append("[").append(elapsedMs).append("ms] ").append(type);
-        if (data != null && !data.isEmpty()) {
-            sb.append(" ").append(data);
+        if (!type.getFields().isEmpty()) {
+            sb.append(" ").append(log.getEvent(index).getData());
         }
         System.out.println(sb);
     }
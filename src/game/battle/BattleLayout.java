@@ -5,9 +5,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Розставляє дроїдів у 2 ряди (до 4 на сторону).
+ * Розставляє дроїдів: невеликі команди — у ряди внизу екрана (до 4 на сторону),
+ * великі — щільною сіткою на всю половину поля (спрайти можуть перекриватись).
  */
 public final class BattleLayout {
+    // До стількох на сторону розкладка лишається класичною
+    public static final int SMALL_TEAM = 4;
+
     private BattleLayout() {
     }
 
@@ -33,6 +37,11 @@ public final class BattleLayout {
         int stepY = Math.max(approxSpriteWidth + 10, bottomHeight / rows);
         int baseY = h - bottomHeight;
 
+        // Ряди не вміщуються — переходимо на стрій для масового бою
+        if (teamSize > SMALL_TEAM && baseY + (rows - 1) * stepY > h - approxSpriteWidth - 5) {
+            return massFormation(side, teamSize, w, h, approxSpriteWidth);
+        }
+
         List<Point> result = new ArrayList<>();
         for (int i = 0; i < teamSize; i++) {
             int row = i / maxPerRow;
@@ -53,4 +62,35 @@ public final class BattleLayout {
         }
         return result;
     }
+
+    // Верхня смуга під HUD
+    private static final int MASS_TOP = 60;
+
+    /**
+     * Сітка на всю половину поля: кількість колонок підбираємо під пропорції області,
+     * крок стискається, щоб усі дроїди лишались у межах панелі.
+     */
+    private static List<Point> massFormation(BattleSide side, int teamSize, int w, int h, int spriteSize) {
+        int marginX = 40;
+        int halfWidth = w / 2;
+        int areaW = Math.max(1, halfWidth - marginX * 2 - spriteSize);
+        int top = Math.min(MASS_TOP, Math.max(0, h - spriteSize - 5));
+        int areaH = Math.max(1, h - spriteSize - 5 - top);
+
+        int cols = (int) Math.ceil(Math.sqrt(teamSize * (double) areaW / areaH));
+        cols = Math.max(1, Math.min(teamSize, cols));
+        int rows = (int) Math.ceil(teamSize / (double) cols);
+
+        double stepX = (cols > 1) ? areaW / (double) (cols - 1) : 0;
+        double stepY = (rows > 1) ? areaH / (double) (rows - 1) : 0;
+        int startX = (side == BattleSide.LEFT) ? marginX : halfWidth + marginX;
+
+        List<Point> result = new ArrayList<>(teamSize);
+        for (int i = 0; i < teamSize; i++) {
+            int row = i / cols;
+            int col = i % cols;
+            result.add(new Point(startX + (int) Math.round(col * stepX), top + (int) Math.round(row * stepY)));
+        }
+        return result;
+    }
 }
@@ -0,0 +1,208 @@
+package game.battle;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Окремий потік симуляції бою з фіксованим кроком.
+ *
+ * Після кожного такту публікує FrameSnapshot через AtomicReference — відмалювання
+ * бере останній знімок без блокувань і ніколи не гальмує симуляцію. Знімків кілька
+ * (SNAPSHOT_SLOTS), вони перезаповнюються по колу: потік симуляції бере вільний
+ * (не опублікований і без читачів), тож у сталому режимі знімки не створюють сміття.
+ * Якщо вільного немає (усі тримають читачі) — такт просто не публікується.
+ * Дії користувача (вибір цілі тощо) передаються чергою команд і виконуються
+ * потоком симуляції перед наступним кроком.
+ *
+ * Швидкість (для реплею): за один такт виконується speed кроків симуляції;
+ * SPEED_MAX — стільки кроків, скільки влізе у бюджет такту.
+ */
+public class BattleLoop {
+    // Якщо відстали більше ніж на стільки кроків — не наздоганяємо, а продовжуємо від «зараз»
+    private static final int MAX_CATCH_UP_STEPS = 5;
+    // Бюджет часу на кроки за один такт у режимі SPEED_MAX
+    private static final long MAX_SPEED_BUDGET_NS = 12_000_000L;
+
+    public static final int SPEED_MAX = Integer.MAX_VALUE;
+
+    // Опублікований + по одному на читача (відмалювання, обробка кліку в UI)
+    private static final int SNAPSHOT_SLOTS = 3;
+
+    private final BattleEngine engine;
+    private final long stepMs;
+    private final AtomicReference<FrameSnapshot> latest = new AtomicReference<>();
+    private final FrameSnapshot[] slots = new FrameSnapshot[SNAPSHOT_SLOTS];
+    private long snapshotSeq = 0;
+    private final ConcurrentLinkedQueue<Consumer<BattleEngine>> commands = new ConcurrentLinkedQueue<>();
+
+    private final Runnable onFinished;
+    private final Consumer<Throwable> onError;
+
+    private volatile boolean running;
+    private volatile int speed = 1;
+    private Thread thread;
+
+    /**
+     * @param onFinished викликається потоком симуляції після завершення бою
+     * @param onError    викликається потоком симуляції, якщо крок кинув виняток
+     */
+    public BattleLoop(BattleEngine engine, Runnable onFinished, Consumer<Throwable> onError) {
+        this.engine = engine;
+        this.stepMs = engine.getStepMs();
+        this.onFinished = onFinished;
+        this.onError = onError;
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new FrameSnapshot();
+        }
+        engine.snapshotInto(slots[0], snapshotSeq++);
+        latest.set(slots[0]);
+    }
+
+    public synchronized void start() {
+        if (thread != null) return;
+        running = true;
+        thread = new Thread(this::run, "battle-sim");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Зупиняє симуляцію і чекає, поки потік симуляції завершить поточний такт,
+     * тож після повернення двигун і його лог більше не змінюються
+     * (окрім виклику з самого потоку симуляції, наприклад з onFinished).
+     */
+    public void stop() {
+        Thread t;
+        synchronized (this) {
+            running = false;
+            t = thread;
+            thread = null;
+        }
+        if (t == null) return;
+        LockSupport.unpark(t);
+        if (t == Thread.currentThread()) return;
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                t.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Бере останній опублікований знімок (ніколи не null). Поки знімок не повернуто
+     * через release(), потік симуляції його не перезаповнює; тримати недовго — один кадр.
+     */
+    public FrameSnapshot acquire() {
+        while (true) {
+            FrameSnapshot snap = latest.get();
+            int r = snap.readers.get();
+            // WRITING — знімок уже не останній і перезаповнюється: беремо новий
+            if (r != FrameSnapshot.WRITING && snap.readers.compareAndSet(r, r + 1)) {
+                return snap;
+            }
+        }
+    }
+
+    public void release(FrameSnapshot snap) {
+        if (snap != null) snap.readers.decrementAndGet();
+    }
+
+    // Потік симуляції: заповнює вільний знімок і робить його останнім
+    private void publish() {
+        FrameSnapshot current = latest.get();
+        for (FrameSnapshot slot : slots) {
+            if (slot == current || !slot.readers.compareAndSet(0, FrameSnapshot.WRITING)) continue;
+            engine.snapshotInto(slot, snapshotSeq++);
+            slot.readers.set(0);
+            latest.set(slot);
+            return;
+        }
+    }
+
+    /**
+     * Ставить дію над двигуном у чергу; виконається у потоці симуляції.
+     */
+    public void submit(Consumer<BattleEngine> command) {
+        if (command != null) commands.add(command);
+    }
+
+    /**
+     * Скільки кроків симуляції робити за такт (1 — реальний час, SPEED_MAX — якнайшвидше).
+     */
+    public void setSpeed(int speed) {
+        if (speed < 1) throw new IllegalArgumentException("Швидкість має бути додатною: " + speed);
+        this.speed = speed;
+    }
+
+    public int getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Перемотує реплей на момент timeMs (у потоці симуляції).
+     */
+    public void seek(long timeMs) {
+        submit(e -> e.seekTo(timeMs));
+    }
+
+    /**
+     * Перемотує реплей на deltaMs вперед (або назад, якщо від'ємне).
+     */
+    public void seekBy(long deltaMs) {
+        submit(e -> e.seekTo(e.getElapsedMs() + deltaMs));
+    }
+
+    private void run() {
+        long stepNs = TimeUnit.MILLISECONDS.toNanos(stepMs);
+        long next = System.nanoTime() + stepNs;
+        try {
+            while (running && !engine.isFinished()) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                    continue;
+                }
+
+                Consumer<BattleEngine> cmd;
+                while ((cmd = commands.poll()) != null) {
+                    cmd.accept(engine);
+                }
+
+                int s = speed;
+                if (s == SPEED_MAX) {
+                    long deadline = System.nanoTime() + MAX_SPEED_BUDGET_NS;
+                    do {
+                        engine.update(stepMs);
+                    } while (!engine.isFinished() && System.nanoTime() < deadline);
+                } else {
+                    engine.update(stepMs * s);
+                }
+                publish();
+
+                next += stepNs;
+                long now = System.nanoTime();
+                if (now - next > stepNs * MAX_CATCH_UP_STEPS) {
+                    next = now + stepNs;
+                }
+            }
+        } catch (RuntimeException ex) {
+            // після stop() бій уже нікому не належить — помилку не повідомляємо
+            boolean report = running;
+            running = false;
+            if (report && onError != null) onError.accept(ex);
+            return;
+        }
+        if (running && engine.isFinished() && onFinished != null) {
+            onFinished.run();
+        }
+    }
+}
@@ -11,6 +11,9 @@ public class BattleParticipant {
     private final int baseX;
     private final int baseY;
 
+    // Порядковий номер у бою (ключ у HealthHeap); задає BattleEngine
+    private int slot = -1;
+
     public BattleParticipant(Droid droid, BattleSide side, int baseX, int baseY) {
         this.droid = droid;
         this.side = side;
@@ -33,4 +36,12 @@ public class BattleParticipant {
     public int getBaseY() {
         return baseY;
     }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    void setSlot(int slot) {
+        this.slot = slot;
+    }
 }
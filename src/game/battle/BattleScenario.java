@@ -1,44 +1,78 @@
 package game.battle;
 
-import game.droid.Droid;
+import game.droid.DroidBlueprint;
 import game.storage.BattleLog;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
+/**
+ * Що і як битиметься: команди (незмінні описи дроїдів), режим, seed і крок.
+ * Дроїдів для бою створює BattleEngine, тож один сценарій можна запускати кілька разів і паралельно.
+ */
 public class BattleScenario {
+    /**
+     * Крок симуляції за замовчуванням (~60 оновлень на секунду).
+     */
+    public static final long DEFAULT_STEP_MS = 16;
+
     private final BattleMode mode;
-    private final List<Droid> leftTeam;
-    private final List<Droid> rightTeam;
+    private final List<DroidBlueprint> leftTeam;
+    private final List<DroidBlueprint> rightTeam;
 
     // якщо це replay — тут буде log
     private final BattleLog replayLog;
 
-    public BattleScenario(BattleMode mode, List<Droid> leftTeam, List<Droid> rightTeam) {
+    // seed генератора випадкових чисел бою та фіксований крок симуляції:
+    // однакові команди + seed + крок => однаковий потік подій
+    private final long seed;
+    private final long stepMs;
+
+    public BattleScenario(BattleMode mode, List<DroidBlueprint> leftTeam, List<DroidBlueprint> rightTeam) {
         this(mode, leftTeam, rightTeam, null);
     }
 
-    public BattleScenario(BattleMode mode, List<Droid> leftTeam, List<Droid> rightTeam, BattleLog replayLog) {
+    public BattleScenario(BattleMode mode, List<DroidBlueprint> leftTeam, List<DroidBlueprint> rightTeam, BattleLog replayLog) {
+        this(mode, leftTeam, rightTeam, replayLog, new Random().nextLong(), DEFAULT_STEP_MS);
+    }
+
+    public BattleScenario(BattleMode mode, List<DroidBlueprint> leftTeam, List<DroidBlueprint> rightTeam, long seed, long stepMs) {
+        this(mode, leftTeam, rightTeam, null, seed, stepMs);
+    }
+
+    public BattleScenario(BattleMode mode, List<DroidBlueprint> leftTeam, List<DroidBlueprint> rightTeam, BattleLog replayLog,
+                          long seed, long stepMs) {
         this.mode = mode;
         this.leftTeam = new ArrayList<>(leftTeam != null ? leftTeam : List.of());
         this.rightTeam = new ArrayList<>(rightTeam != null ? rightTeam : List.of());
         this.replayLog = replayLog;
+        this.seed = seed;
+        this.stepMs = Math.max(1, stepMs);
     }
 
     public BattleMode getMode() {
         return mode;
     }
 
-    public List<Droid> getLeftTeam() {
+    public List<DroidBlueprint> getLeftTeam() {
         return Collections.unmodifiableList(leftTeam);
     }
 
-    public List<Droid> getRightTeam() {
+    public List<DroidBlueprint> getRightTeam() {
         return Collections.unmodifiableList(rightTeam);
     }
 
     public BattleLog getReplayLog() {
         return replayLog;
     }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getStepMs() {
+        return stepMs;
+    }
 }
@@ -0,0 +1,148 @@
+package game.battle;
+
+import game.droid.Droid;
+
+import java.util.Arrays;
+
+/**
+ * Бойовий стан учасників у щільних масивах (індекс — слот учасника).
+ *
+ * HP, енергія та позиція — копії значень Droid, які BattleEngine оновлює після
+ * кожної своєї зміни (sync*); кулдаун, блокування, сторона й ручна ціль живуть лише тут.
+ * Id дроїда переводиться у слот один раз — двійковим пошуком по відсортованих id.
+ */
+final class CombatState {
+    static final int NO_SLOT = -1;
+    private static final BattleSide[] SIDES = BattleSide.values();
+
+    private final BattleParticipant[] participants;
+    private final Droid[] droids;
+    final int[] ids;
+    final byte[] side; // BattleSide.ordinal()
+    final int[] hp;
+    final int[] maxHp;
+    final int[] energy;
+    final int[] x;
+    final int[] y;
+    final long[] cooldownMs;
+    final boolean[] locked;
+    final int[] manualTarget; // слот цілі або NO_SLOT
+    private int size;
+
+    // id -> слот
+    private int[] sortedIds = new int[0];
+    private int[] sortedSlots = new int[0];
+
+    CombatState(int capacity) {
+        participants = new BattleParticipant[capacity];
+        droids = new Droid[capacity];
+        ids = new int[capacity];
+        side = new byte[capacity];
+        hp = new int[capacity];
+        maxHp = new int[capacity];
+        energy = new int[capacity];
+        x = new int[capacity];
+        y = new int[capacity];
+        cooldownMs = new long[capacity];
+        locked = new boolean[capacity];
+        manualTarget = new int[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Додає учасника у наступний слот і повертає цей слот.
+     */
+    int add(BattleParticipant bp, long initialCooldownMs) {
+        int s = size++;
+        Droid d = bp.getDroid();
+        bp.setSlot(s);
+        participants[s] = bp;
+        droids[s] = d;
+        ids[s] = d.getId();
+        side[s] = (byte) bp.getSide().ordinal();
+        maxHp[s] = d.getMaxHealth();
+        cooldownMs[s] = initialCooldownMs;
+        locked[s] = false;
+        manualTarget[s] = NO_SLOT;
+        syncHealth(s);
+        syncEnergy(s);
+        syncPosition(s);
+        return s;
+    }
+
+    /**
+     * Будує відповідність id -> слот; викликається після додавання всіх учасників.
+     * Для повторних id (чого не має бути) перемагає пізніший слот.
+     */
+    void indexIds() {
+        long[] packed = new long[size];
+        for (int s = 0; s < size; s++) {
+            packed[s] = ((long) ids[s] << 32) | s;
+        }
+        Arrays.sort(packed);
+        int n = 0;
+        sortedIds = new int[size];
+        sortedSlots = new int[size];
+        for (long p : packed) {
+            int id = (int) (p >> 32);
+            if (n > 0 && sortedIds[n - 1] == id) n--;
+            sortedIds[n] = id;
+            sortedSlots[n] = (int) p;
+            n++;
+        }
+        if (n < size) {
+            sortedIds = Arrays.copyOf(sortedIds, n);
+            sortedSlots = Arrays.copyOf(sortedSlots, n);
+        }
+    }
+
+    int slotOf(int droidId) {
+        int i = Arrays.binarySearch(sortedIds, droidId);
+        return (i >= 0) ? sortedSlots[i] : NO_SLOT;
+    }
+
+    BattleParticipant participant(int slot) {
+        return participants[slot];
+    }
+
+    Droid droid(int slot) {
+        return droids[slot];
+    }
+
+    boolean isAlive(int slot) {
+        return hp[slot] > 0;
+    }
+
+    BattleSide sideOf(int slot) {
+        return SIDES[side[slot]];
+    }
+
+    void syncHealth(int slot) {
+        hp[slot] = droids[slot].getHealth();
+    }
+
+    void syncEnergy(int slot) {
+        energy[slot] = droids[slot].getEnergyLevel();
+    }
+
+    void syncPosition(int slot) {
+        x[slot] = droids[slot].getXPosition();
+        y[slot] = droids[slot].getYPosition();
+    }
+
+    int sumHp(BattleSide s) {
+        byte wanted = (byte) s.ordinal();
+        int sum = 0;
+        for (int i = 0; i < size; i++) {
+            if (side[i] == wanted) sum += hp[i];
+        }
+        return sum;
+    }
+
+    void clearLocks() {
+        Arrays.fill(locked, 0, size, false);
+    }
+}
@@ -0,0 +1,210 @@
+package game.battle;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Знімок стану бою для відмалювання.
+ *
+ * Заповнюється потоком симуляції після кроку (BattleEngine.snapshotInto); UI читає
+ * лише знімок і ніколи не торкається живих обʼєктів двигуна. BattleLoop тримає кілька
+ * знімків і перезаповнює їх по колу, тож читач бере знімок через BattleLoop.acquire()
+ * і віддає через release() — поки знімок у читача, потік симуляції його не чіпає.
+ * Обʼєкти DroidView/ProjectileView теж перевикористовуються: поза acquire/release
+ * посилання на них не тримають.
+ */
+public final class FrameSnapshot {
+    // > 0 — кількість читачів, WRITING — знімок заповнюється (див. BattleLoop)
+    static final int WRITING = -1;
+    final AtomicInteger readers = new AtomicInteger();
+
+    private long sequence;
+    private long elapsedMs;
+    private long createdNs;
+    private long stepMs;
+    private boolean finished;
+
+    private final ArrayList<DroidView> droids = new ArrayList<>();
+    private final ArrayList<ProjectileView> projectiles = new ArrayList<>();
+    private final List<DroidView> droidsView = Collections.unmodifiableList(droids);
+    private final List<ProjectileView> projectilesView = Collections.unmodifiableList(projectiles);
+    // Запас обʼєктів для повторного заповнення (ростуть до максимуму за бій)
+    private final ArrayList<DroidView> droidPool = new ArrayList<>();
+    private final ArrayList<ProjectileView> projectilePool = new ArrayList<>();
+
+    FrameSnapshot() {
+    }
+
+    /**
+     * Починає заповнення: час і стан, списки дроїдів і снарядів порожні.
+     */
+    void begin(long sequence, long elapsedMs, long createdNs, long stepMs, boolean finished) {
+        this.sequence = sequence;
+        this.elapsedMs = elapsedMs;
+        this.createdNs = createdNs;
+        this.stepMs = stepMs;
+        this.finished = finished;
+        droids.clear();
+        projectiles.clear();
+    }
+
+    DroidView addDroid() {
+        int n = droids.size();
+        if (n == droidPool.size()) droidPool.add(new DroidView());
+        DroidView v = droidPool.get(n);
+        droids.add(v);
+        return v;
+    }
+
+    ProjectileView addProjectile() {
+        int n = projectiles.size();
+        if (n == projectilePool.size()) projectilePool.add(new ProjectileView());
+        ProjectileView v = projectilePool.get(n);
+        projectiles.add(v);
+        return v;
+    }
+
+    /**
+     * Порядковий номер заповнення: інший номер — інший стан бою (навіть у тому самому обʼєкті).
+     */
+    public long sequence() {
+        return sequence;
+    }
+
+    /**
+     * Час бою на момент знімка.
+     */
+    public long elapsedMs() {
+        return elapsedMs;
+    }
+
+    /**
+     * System.nanoTime() публікації (для інтерполяції).
+     */
+    public long createdNs() {
+        return createdNs;
+    }
+
+    /**
+     * Крок симуляції.
+     */
+    public long stepMs() {
+        return stepMs;
+    }
+
+    public boolean finished() {
+        return finished;
+    }
+
+    public List<DroidView> droids() {
+        return droidsView;
+    }
+
+    public List<ProjectileView> projectiles() {
+        return projectilesView;
+    }
+
+    /**
+     * Дроїд у момент знімка: позиція, кадр анімації (уже віддзеркалений, якщо mirror), HP.
+     */
+    public static final class DroidView {
+        private int id;
+        private String name;
+        private String model;
+        private BattleSide side;
+        private int x;
+        private int y;
+        private int width;
+        private int height;
+        private int health;
+        private int maxHealth;
+        private boolean alive;
+        private boolean mirror;
+        private Image frame;
+
+        DroidView() {
+        }
+
+        void set(int id, String name, String model, BattleSide side, int x, int y, int width, int height,
+                 int health, int maxHealth, boolean alive, boolean mirror, Image frame) {
+            this.id = id;
+            this.name = name;
+            this.model = model;
+            this.side = side;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.health = health;
+            this.maxHealth = maxHealth;
+            this.alive = alive;
+            this.mirror = mirror;
+            this.frame = frame;
+        }
+
+        public int id() { return id; }
+        public String name() { return name; }
+        public String model() { return model; }
+        public BattleSide side() { return side; }
+        public int x() { return x; }
+        public int y() { return y; }
+        public int width() { return width; }
+        public int height() { return height; }
+        public int health() { return health; }
+        public int maxHealth() { return maxHealth; }
+        public boolean alive() { return alive; }
+        public boolean mirror() { return mirror; }
+        public Image frame() { return frame; }
+
+        public boolean contains(int px, int py) {
+            return px >= x && py >= y && px < x + width && py < y + height;
+        }
+
+        public void draw(Graphics g) {
+            g.drawImage(frame, x, y, null);
+        }
+    }
+
+    /**
+     * Снаряд у момент знімка; швидкість — у пікселях за 16 мс.
+     */
+    public static final class ProjectileView {
+        private double x;
+        private double y;
+        private double vx;
+        private double vy;
+        private int width;
+        private int height;
+
+        ProjectileView() {
+        }
+
+        void set(double x, double y, double vx, double vy, int width, int height) {
+            this.x = x;
+            this.y = y;
+            this.vx = vx;
+            this.vy = vy;
+            this.width = width;
+            this.height = height;
+        }
+
+        public double x() { return x; }
+        public double y() { return y; }
+        public double vx() { return vx; }
+        public double vy() { return vy; }
+        public int width() { return width; }
+        public int height() { return height; }
+
+        /**
+         * Малює снаряд, зсунутий уперед на aheadMs (інтерполяція між знімками).
+         */
+        public void draw(Graphics2D g, long aheadMs) {
+            double dt = aheadMs / 16.0;
+            g.setColor(Color.RED);
+            g.fillRoundRect((int) (x + vx * dt), (int) (y + vy * dt), width, height, 6, 6);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package game.battle;
+
+import java.util.Arrays;
+
+/**
+ * Індексована min-купа живих дроїдів однієї сторони за відсотком HP.
+ *
+ * Ключ — слот учасника в бою; при рівному відсотку HP перемагає менший слот,
+ * тож вибір збігається з лінійним пошуком «перший найслабший».
+ * Оновлення після шкоди/лікування — O(log n), найслабший — O(1).
+ * HP береться з масивів CombatState, тож їх треба синхронізувати до update().
+ */
+final class HealthHeap {
+    private final int[] hp;
+    private final int[] maxHp;
+    private final int[] heap;
+    private final int[] pos; // слот -> позиція у купі або -1
+    private int size;
+
+    HealthHeap(CombatState state, int capacity) {
+        hp = state.hp;
+        maxHp = state.maxHp;
+        heap = new int[capacity];
+        pos = new int[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Слот найслабшого живого учасника або CombatState.NO_SLOT.
+     */
+    int peek() {
+        return (size == 0) ? CombatState.NO_SLOT : heap[0];
+    }
+
+    void add(int slot) {
+        if (pos[slot] >= 0) {
+            update(slot);
+            return;
+        }
+        heap[size] = slot;
+        pos[slot] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Перераховує позицію після зміни HP; мертвих прибирає з купи.
+     */
+    void update(int slot) {
+        if (hp[slot] <= 0) {
+            remove(slot);
+            return;
+        }
+        int i = pos[slot];
+        if (i < 0) {
+            add(slot);
+            return;
+        }
+        siftUp(i);
+        siftDown(pos[slot]);
+    }
+
+    void remove(int slot) {
+        int i = pos[slot];
+        if (i < 0) return;
+        int last = heap[--size];
+        pos[slot] = -1;
+        if (i == size) return;
+        heap[i] = last;
+        pos[last] = i;
+        siftUp(i);
+        siftDown(pos[last]);
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) pos[heap[i]] = -1;
+        size = 0;
+    }
+
+    private void siftUp(int i) {
+        int slot = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(slot, heap[parent])) break;
+            heap[i] = heap[parent];
+            pos[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = slot;
+        pos[slot] = i;
+    }
+
+    private void siftDown(int i) {
+        int slot = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && less(heap[right], heap[child])) child = right;
+            if (!less(heap[child], slot)) break;
+            heap[i] = heap[child];
+            pos[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = slot;
+        pos[slot] = i;
+    }
+
+    // health/maxHealth порівнюємо перехресним множенням — без похибок double
+    private boolean less(int a, int b) {
+        long lhs = (long) hp[a] * maxHp[b];
+        long rhs = (long) hp[b] * maxHp[a];
+        if (lhs != rhs) return lhs < rhs;
+        return a < b;
+    }
+}
@@ -4,64 +4,346 @@ import java.awt.*;
 
 /**
  * Проста «червона куля» (розміром тіктаку) для лазерної атаки.
+ *
+ * Позиція рахується в замкненій формі від точки старту й часу польоту, тож крок влучання
+ * можна знайти наперед (stepsToImpact) — з тими самими округленнями, що й покроковий політ.
+ * Влучання перевіряється по всьому відрізку кроку (sweepHits), тож навіть за великого кроку
+ * снаряд не проскакує крізь ціль.
+ *
+ * BattleEngine перевикористовує неактивні снаряди (reset), тож зберігати
+ * посилання на снаряд після його деактивації не можна.
  */
 public class LaserProjectile {
+    // тіктак приблизно
+    private static final int WIDTH = 18;
+    private static final int HEIGHT = 8;
+
+    // Відступ за межі поля, після якого снаряд зникає
+    static final int OFFSCREEN_MARGIN = 100;
+
+    // «Ніколи» для stepsToImpact
+    static final long NEVER = Long.MAX_VALUE;
+    // Далі цього снаряд гарантовано за межами будь-якого поля
+    private static final long MAX_STEPS = 1L << 24;
+
+    // Точка старту, швидкість і час польоту; x, y — похідні від них
+    private double x0;
+    private double y0;
+    private double vx;
+    private double vy;
+    private long flightMs;
+
     private double x;
     private double y;
-    private final double vx;
-    private final double vy;
+    // Позиція до останнього update() — початок відрізка для sweepHits
+    private double prevX;
+    private double prevY;
 
-    private final int width;
-    private final int height;
+    private boolean active;
 
-    private boolean active = true;
-
-    private final int attackerId;
-    private final int targetId;
+    private int attackerId;
+    private int targetId;
 
     /**
      * Чи має цей постріл попасти (для реплею/детермінованого відтворення).
      */
-    private final boolean willHit;
+    private boolean willHit;
 
     /**
      * Запланований урон (для реплею/детермінованого відтворення).
      */
-    private final int plannedDamage;
+    private int plannedDamage;
+
+    private boolean applied;
 
-    private boolean applied = false;
+    // Для аналітичного режиму BattleEngine: коли випущено, коли влучить (NEVER — ні),
+    // коли вилетить за поле, порядок пострілу
+    private long launchMs;
+    private long impactMs;
+    private long leavesMs;
+    private long seq;
 
     public LaserProjectile(double x, double y, double vx, double vy, int attackerId, int targetId, boolean willHit, int plannedDamage) {
+        reset(x, y, vx, vy, attackerId, targetId, willHit, plannedDamage);
+    }
+
+    /**
+     * Новий постріл у цьому ж обʼєкті (з пулу снарядів).
+     */
+    void reset(double x, double y, double vx, double vy, int attackerId, int targetId, boolean willHit, int plannedDamage) {
+        this.x0 = x;
+        this.y0 = y;
         this.x = x;
         this.y = y;
+        this.prevX = x;
+        this.prevY = y;
+        this.flightMs = 0;
         this.vx = vx;
         this.vy = vy;
         this.attackerId = attackerId;
         this.targetId = targetId;
         this.willHit = willHit;
         this.plannedDamage = Math.max(0, plannedDamage);
-
-        // тіктак приблизно
-        this.width = 18;
-        this.height = 8;
+        this.active = true;
+        this.applied = false;
     }
 
     public void update(long deltaMs) {
         if (!active) return;
-        double dt = deltaMs / 16.0; // умовна нормалізація (16мс ~ 1 крок)
-        x += vx * dt;
-        y += vy * dt;
+        prevX = x;
+        prevY = y;
+        flightMs += deltaMs;
+        x = xAt(flightMs);
+        y = yAt(flightMs);
+    }
+
+    /**
+     * Те саме, що steps викликів update(deltaMs) поспіль.
+     */
+    void advance(long deltaMs, long steps) {
+        update(deltaMs * steps);
+    }
+
+    // Умовна нормалізація: 16мс ~ 1 крок швидкості
+    private double xAt(long flight) {
+        return x0 + vx * (flight / 16.0);
+    }
+
+    private double yAt(long flight) {
+        return y0 + vy * (flight / 16.0);
+    }
+
+    /**
+     * Чи зачепив снаряд ціль за останній update(): кінцевою позицією або будь-якою точкою
+     * відрізка від попередньої позиції.
+     */
+    public boolean sweepHits(Rectangle target) {
+        return segmentHits(prevX, prevY, x, y, target);
+    }
+
+    private static boolean segmentHits(double ax, double ay, double bx, double by, Rectangle t) {
+        int px = (int) bx;
+        int py = (int) by;
+        if (px + WIDTH > t.x && py + HEIGHT > t.y && t.x + t.width > px && t.y + t.height > py) return true;
+        return sweepEntry(ax, ay, bx, by, t) <= 1.0;
+    }
+
+    /**
+     * Частка відрізка (0..1], на якій снаряд заходить у ціль; +∞ — не заходить.
+     * Якщо снаряд уже був у цілі на початку відрізка (ціль переміститься на нього),
+     * це не влучання — як і раніше, рахується лише кінцева позиція.
+     *
+     * Ціль розширена на розмір снаряда до області, де (int)-координати дають перетин
+     * (як у Droid.intersects), і перетинається з відрізком по осях (slab-тест).
+     */
+    static double sweepEntry(double ax, double ay, double bx, double by, Rectangle t) {
+        double enter = Double.NEGATIVE_INFINITY;
+        double exit = Double.POSITIVE_INFINITY;
+
+        double xLo = realLow(t.x - WIDTH + 1);
+        double xHi = realHigh(t.x + t.width - 1);
+        double dx = bx - ax;
+        if (dx == 0) {
+            if (ax < xLo || ax > xHi) return Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (xLo - ax) / dx;
+            double t2 = (xHi - ax) / dx;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+        }
+
+        double yLo = realLow(t.y - HEIGHT + 1);
+        double yHi = realHigh(t.y + t.height - 1);
+        double dy = by - ay;
+        if (dy == 0) {
+            if (ay < yLo || ay > yHi) return Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (yLo - ay) / dy;
+            double t2 = (yHi - ay) / dy;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+        }
+
+        return (enter > 0 && enter <= 1 && enter <= exit) ? enter : Double.POSITIVE_INFINITY;
+    }
+
+    // Найменша/найбільша дійсна координата, яка після (int) ще ≥ lo / ≤ hi (відкидання дробу — до нуля)
+    private static double realLow(int lo) {
+        return (lo > 0) ? lo : lo - 1;
+    }
+
+    private static double realHigh(int hi) {
+        return (hi >= 0) ? hi + 1 : hi;
+    }
+
+    /**
+     * Номер кроку k ≥ 0 (час польоту fromFlightMs + k*stepMs), на якому снаряд уперше зачепить
+     * ціль (як sweepHits після update). Влучання на кроці, де снаряд вилітає за поле, ще
+     * зараховується — як в update-циклі BattleEngine. NEVER — не влучить.
+     */
+    long stepsToImpact(long fromFlightMs, long stepMs, Rectangle target, int panelW, int panelH) {
+        long hit = Math.min(stepsToEndInside(fromFlightMs, stepMs, target),
+                stepsToSweepHit(fromFlightMs, stepMs, target));
+        if (hit == NEVER) return NEVER;
+        return (hit <= stepsToLeavePanel(fromFlightMs, stepMs, panelW, panelH)) ? hit : NEVER;
+    }
+
+    /**
+     * Перший k, на якому відрізок кроку зачіпає ціль. Момент дотику прямої до цілі дає оцінку,
+     * яку перевіряємо тим самим segmentHits, що й sweepHits, на сусідніх кроках.
+     */
+    private long stepsToSweepHit(long from, long stepMs, Rectangle t) {
+        double fIn = Double.NEGATIVE_INFINITY;
+        double fOut = Double.POSITIVE_INFINITY;
+        if (vx == 0) {
+            if (x0 < realLow(t.x - WIDTH + 1) || x0 > realHigh(t.x + t.width - 1)) return NEVER;
+        } else {
+            double f1 = (realLow(t.x - WIDTH + 1) - x0) * 16.0 / vx;
+            double f2 = (realHigh(t.x + t.width - 1) - x0) * 16.0 / vx;
+            fIn = Math.max(fIn, Math.min(f1, f2));
+            fOut = Math.min(fOut, Math.max(f1, f2));
+        }
+        if (vy == 0) {
+            if (y0 < realLow(t.y - HEIGHT + 1) || y0 > realHigh(t.y + t.height - 1)) return NEVER;
+        } else {
+            double f1 = (realLow(t.y - HEIGHT + 1) - y0) * 16.0 / vy;
+            double f2 = (realHigh(t.y + t.height - 1) - y0) * 16.0 / vy;
+            fIn = Math.max(fIn, Math.min(f1, f2));
+            fOut = Math.min(fOut, Math.max(f1, f2));
+        }
+        // із запасом на округлення: остаточно вирішує segmentHits
+        if (fIn > fOut + stepMs || fOut < from - 2 * stepMs) return NEVER;
+
+        double estimate = Math.ceil((fIn - from) / stepMs);
+        if (!(estimate < MAX_STEPS)) return NEVER;
+        long first = (estimate <= 2) ? 0 : (long) estimate - 2;
+        for (long k = first; k <= first + 4; k++) {
+            long end = from + k * stepMs;
+            if (segmentHits(xAt(end - stepMs), yAt(end - stepMs), xAt(end), yAt(end), t)) return k;
+        }
+        return NEVER;
+    }
+
+    // Перший k, на якому кінцева позиція перетинає ціль
+    private long stepsToEndInside(long fromFlightMs, long stepMs, Rectangle target) {
+        long hitFrom = Math.max(
+                enter(true, fromFlightMs, stepMs, target.x - WIDTH + 1, target.x + target.width - 1),
+                enter(false, fromFlightMs, stepMs, target.y - HEIGHT + 1, target.y + target.height - 1));
+        if (hitFrom == NEVER) return NEVER;
+        long hitUntil = Math.min(
+                leave(true, fromFlightMs, stepMs, target.x - WIDTH + 1, target.x + target.width - 1),
+                leave(false, fromFlightMs, stepMs, target.y - HEIGHT + 1, target.y + target.height - 1));
+        return (hitFrom < hitUntil) ? hitFrom : NEVER;
+    }
+
+    /**
+     * Номер кроку k ≥ 0 (як у stepsToImpact), на якому снаряд уперше опиниться за межами поля.
+     */
+    long stepsToLeavePanel(long fromFlightMs, long stepMs, int panelW, int panelH) {
+        long outX = outside(true, fromFlightMs, stepMs, -OFFSCREEN_MARGIN, panelW + OFFSCREEN_MARGIN);
+        long outY = outside(false, fromFlightMs, stepMs, -OFFSCREEN_MARGIN, panelH + OFFSCREEN_MARGIN);
+        return Math.min(outX, outY);
+    }
+
+    private long outside(boolean xAxis, long from, long stepMs, int lo, int hi) {
+        long in = enter(xAxis, from, stepMs, lo, hi);
+        return (in > 0) ? 0 : leave(xAxis, from, stepMs, lo, hi);
+    }
+
+    // Перший k, на якому координата в [lo, hi] (NEVER — ніколи)
+    private long enter(boolean xAxis, long from, long stepMs, int lo, int hi) {
+        double v = xAxis ? vx : vy;
+        if (v == 0) return inRange(coordAt(xAxis, from), lo, hi) ? 0 : NEVER;
+        long k = (v > 0) ? firstAtLeast(xAxis, from, stepMs, 1, lo) : firstAtLeast(xAxis, from, stepMs, -1, -hi);
+        return (k != NEVER && inRange(coordAt(xAxis, from + k * stepMs), lo, hi)) ? k : NEVER;
+    }
+
+    // Перший k після проміжку [lo, hi] (NEVER — не покидає його)
+    private long leave(boolean xAxis, long from, long stepMs, int lo, int hi) {
+        double v = xAxis ? vx : vy;
+        if (v == 0) return NEVER;
+        return (v > 0) ? firstAtLeast(xAxis, from, stepMs, 1, hi + 1) : firstAtLeast(xAxis, from, stepMs, -1, -(lo - 1));
+    }
+
+    // Перший k, для якого sign * координата ≥ bound (за sign * v > 0 це монотонно)
+    private long firstAtLeast(boolean xAxis, long from, long stepMs, int sign, long bound) {
+        if (atLeast(xAxis, from, sign, bound)) return 0;
+        // оцінка з дійсної прямої, далі уточнення тими самими xAt/yAt (і відкиданням дробу), що й update()
+        double v = sign * (xAxis ? vx : vy);
+        double p0 = sign * (xAxis ? x0 : y0);
+        double estimate = ((bound - p0) * 16.0 / v - from) / stepMs;
+        if (!(estimate < MAX_STEPS)) return NEVER;
+        long k = Math.max(1, (long) Math.ceil(estimate));
+        while (k > 1 && atLeast(xAxis, from + (k - 1) * stepMs, sign, bound)) k--;
+        while (!atLeast(xAxis, from + k * stepMs, sign, bound)) {
+            if (++k > MAX_STEPS) return NEVER;
+        }
+        return k;
+    }
+
+    private boolean atLeast(boolean xAxis, long flight, int sign, long bound) {
+        return sign * (long) coordAt(xAxis, flight) >= bound;
+    }
+
+    private int coordAt(boolean xAxis, long flight) {
+        return (int) (xAxis ? xAt(flight) : yAt(flight));
+    }
+
+    private static boolean inRange(int c, int lo, int hi) {
+        return c >= lo && c <= hi;
     }
 
     public void draw(Graphics g) {
         if (!active) return;
         Graphics2D g2d = (Graphics2D) g;
         g2d.setColor(Color.RED);
-        g2d.fillRoundRect((int) x, (int) y, width, height, 6, 6);
+        g2d.fillRoundRect((int) x, (int) y, WIDTH, HEIGHT, 6, 6);
     }
 
     public Rectangle getBounds() {
-        return new Rectangle((int) x, (int) y, width, height);
+        return getBounds(new Rectangle());
+    }
+
+    /**
+     * Межі у наданий прямокутник (без створення нового).
+     */
+    public Rectangle getBounds(Rectangle into) {
+        into.setBounds((int) x, (int) y, WIDTH, HEIGHT);
+        return into;
+    }
+
+    // Координати без створення Rectangle (для перевірок у гарячому циклі)
+    public int getX() {
+        return (int) x;
+    }
+
+    public int getY() {
+        return (int) y;
+    }
+
+    // Точні координати (для знімків стану)
+    public double getExactX() {
+        return x;
+    }
+
+    public double getExactY() {
+        return y;
+    }
+
+    public double getVx() {
+        return vx;
+    }
+
+    public double getVy() {
+        return vy;
+    }
+
+    public int getWidth() {
+        return WIDTH;
+    }
+
+    public int getHeight() {
+        return HEIGHT;
     }
 
     public boolean isActive() {
@@ -88,6 +370,44 @@ public class LaserProjectile {
         this.applied = true;
     }
 
+    public long getFlightMs() {
+        return flightMs;
+    }
+
+    long getLaunchMs() {
+        return launchMs;
+    }
+
+    void setLaunchMs(long launchMs) {
+        this.launchMs = launchMs;
+    }
+
+    long getImpactMs() {
+        return impactMs;
+    }
+
+    long getLeavesMs() {
+        return leavesMs;
+    }
+
+    void setImpactMs(long impactMs, long leavesMs) {
+        this.impactMs = impactMs;
+        this.leavesMs = leavesMs;
+    }
+
+    // Коли снаряд треба обробити: влучання або виліт за поле
+    long getDueMs() {
+        return Math.min(impactMs, leavesMs);
+    }
+
+    long getSeq() {
+        return seq;
+    }
+
+    void setSeq(long seq) {
+        this.seq = seq;
+    }
+
     public int getAttackerId() {
         return attackerId;
     }
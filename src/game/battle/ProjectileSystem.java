@@ -0,0 +1,329 @@
+package game.battle;
+
+import game.droid.Droid;
+import game.storage.BattleCheckpoint;
+
+import java.awt.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Снаряди одного бою: політ, влучання, пул і аналітичний режим.
+ *
+ * Кожен BattleEngine має власний екземпляр, спільного стану між боями немає,
+ * тож паралельні бої (пакетна симуляція, кілька боїв в одному процесі) не
+ * перетинаються. Сам клас не синхронізований — ним користується лише потік свого бою.
+ *
+ * Шкоду й лог влучання застосовує бій через HitListener.
+ */
+final class ProjectileSystem {
+
+    /**
+     * Снаряд влучив у живу ціль (снаряд уже позначено застосованим).
+     */
+    interface HitListener {
+        void onHit(LaserProjectile p, Droid target);
+    }
+
+    private final CombatState state;
+    private final int panelW;
+    private final int panelH;
+    private final long stepMs;
+    // у реплеї шкода застосовується по подіях логу, снаряди лише летять
+    private final boolean replay;
+    private final HitListener listener;
+
+    private final List<LaserProjectile> projectiles = new ArrayList<>();
+    private final List<LaserProjectile> projectilesView = Collections.unmodifiableList(projectiles);
+    // Неактивні снаряди для повторного використання
+    private final ArrayDeque<LaserProjectile> pool = new ArrayDeque<>();
+
+    // Аналітичний режим (без вікна): снаряди не летять покроково — влучання одразу
+    // плануються на свій крок, у порядку (час, порядок пострілу). Снаряд, що розминувся з ціллю,
+    // лишається в черзі до вильоту за поле: ціль ще може переміститись йому назустріч
+    private boolean analytic = false;
+    private final PriorityQueue<LaserProjectile> impacts = new PriorityQueue<>(
+            Comparator.comparingLong(LaserProjectile::getDueMs).thenComparingLong(LaserProjectile::getSeq));
+    private final List<LaserProjectile> retargeted = new ArrayList<>();
+    private long shotSeq = 0;
+    // Час кроку, на якому снаряди вже оброблено (влучання далі — не раніше наступного кроку)
+    private long phaseMs = -1;
+
+    // Робочий прямокутник для меж цілі
+    private final Rectangle bounds = new Rectangle();
+
+    ProjectileSystem(CombatState state, Dimension panelSize, long stepMs, boolean replay, HitListener listener) {
+        this.state = state;
+        this.panelW = panelSize.width;
+        this.panelH = panelSize.height;
+        this.stepMs = stepMs;
+        this.replay = replay;
+        this.listener = listener;
+    }
+
+    /**
+     * Снаряди в польоті (лише для читання; додавати — через fire/spawn).
+     */
+    List<LaserProjectile> inFlight() {
+        return projectilesView;
+    }
+
+    void setAnalytic(boolean analytic) {
+        this.analytic = analytic;
+    }
+
+    boolean isAnalytic() {
+        return analytic;
+    }
+
+    /**
+     * Постріл по цілі. В аналітичному режимі промах не створюється зовсім,
+     * влучання планується одразу; снаряди з реплею завжди летять покроково.
+     */
+    void fire(double x, double y, double vx, double vy, int attackerId, Droid target,
+              boolean hit, int damage, long nowMs, boolean fromReplay) {
+        if (analytic && !fromReplay && !replay) {
+            // промах ні на що не впливає — снаряд не потрібен
+            if (hit) launchAnalytic(x, y, vx, vy, attackerId, target, damage, nowMs);
+        } else {
+            spawn(x, y, vx, vy, attackerId, target.getId(), hit, damage);
+        }
+    }
+
+    void spawn(double x, double y, double vx, double vy,
+               int attackerId, int targetId, boolean hit, int damage) {
+        projectiles.add(obtain(x, y, vx, vy, attackerId, targetId, hit, damage));
+    }
+
+    /**
+     * Один крок снарядів: політ і перевірка влучань, потім аналітичні влучання, час яких настав.
+     */
+    void update(long deltaMs, long nowMs) {
+        updateFlying(deltaMs);
+        resolveImpacts(nowMs);
+        phaseMs = nowMs;
+    }
+
+    private void updateFlying(long deltaMs) {
+        if (projectiles.isEmpty()) return;
+
+        for (int i = 0; i < projectiles.size(); i++) {
+            LaserProjectile p = projectiles.get(i);
+            if (!p.isActive()) continue;
+            p.update(deltaMs);
+
+            int px = p.getX();
+            int py = p.getY();
+            int m = LaserProjectile.OFFSCREEN_MARGIN;
+            boolean offscreen = px < -m || px > panelW + m || py < -m || py > panelH + m;
+
+            // у реплеї шкода застосовується по EVENT-ам; промах пролітає повз
+            if (replay || !p.willHit() || p.isApplied()) {
+                if (offscreen) p.deactivate();
+                continue;
+            }
+
+            int targetSlot = state.slotOf(p.getTargetId());
+            if (targetSlot == CombatState.NO_SLOT) {
+                if (offscreen) p.deactivate();
+                continue;
+            }
+            Droid target = state.droid(targetSlot);
+            if (!state.isAlive(targetSlot)) {
+                p.deactivate();
+                continue;
+            }
+
+            // кожен снаряд перевіряється лише проти своєї цілі — широка фаза не потрібна;
+            // весь відрізок кроку, тож влучання на кроці виходу за поле ще зараховується
+            if (p.sweepHits(target.getBounds(bounds))) {
+                p.markApplied();
+                p.deactivate();
+                listener.onHit(p, target);
+            } else if (offscreen) {
+                p.deactivate();
+            }
+        }
+
+        // неактивні — назад у пул, активні зсуваємо на їхнє місце (порядок зберігається)
+        int kept = 0;
+        int n = projectiles.size();
+        for (int i = 0; i < n; i++) {
+            LaserProjectile p = projectiles.get(i);
+            if (p.isActive()) {
+                projectiles.set(kept++, p);
+            } else {
+                pool.push(p);
+            }
+        }
+        for (int i = n - 1; i >= kept; i--) {
+            projectiles.remove(i);
+        }
+    }
+
+    // Влучання аналітичного режиму, час яких настав (на місці покрокової перевірки в updateFlying)
+    private void resolveImpacts(long nowMs) {
+        while (!impacts.isEmpty() && impacts.peek().getDueMs() <= nowMs) {
+            LaserProjectile p = impacts.poll();
+            int targetSlot = state.slotOf(p.getTargetId());
+            if (p.getImpactMs() <= nowMs
+                    && targetSlot != CombatState.NO_SLOT && state.isAlive(targetSlot)) {
+                p.markApplied();
+                listener.onHit(p, state.droid(targetSlot));
+            }
+            p.deactivate();
+            pool.push(p);
+        }
+    }
+
+    /**
+     * Зсуває снаряди в польоті на steps кроків, на яких гарантовано нічого не відбувається.
+     */
+    void advance(long steps) {
+        for (int i = 0; i < projectiles.size(); i++) {
+            projectiles.get(i).advance(stepMs, steps);
+        }
+    }
+
+    /**
+     * Через скільки кроків найближче влучання снаряда в польоті, якщо раніше за limit, інакше limit.
+     */
+    long stepsUntilImpact(long limit) {
+        long next = limit;
+        for (int i = 0; i < projectiles.size() && next > 1; i++) {
+            next = stepsUntilImpact(projectiles.get(i), next);
+        }
+        return next;
+    }
+
+    private long stepsUntilImpact(LaserProjectile p, long limit) {
+        if (!p.isActive() || !p.willHit() || p.isApplied()) return limit;
+        int targetSlot = state.slotOf(p.getTargetId());
+        if (targetSlot == CombatState.NO_SLOT || !state.isAlive(targetSlot)) return limit;
+
+        Rectangle tr = state.droid(targetSlot).getBounds(bounds);
+        long k = p.stepsToImpact(p.getFlightMs() + stepMs, stepMs, tr, panelW, panelH);
+        return (k < limit - 1) ? k + 1 : limit;
+    }
+
+    /**
+     * Час найближчої аналітичної перевірки (Long.MAX_VALUE, якщо черга порожня).
+     */
+    long nextImpactMs() {
+        return impacts.isEmpty() ? Long.MAX_VALUE : impacts.peek().getDueMs();
+    }
+
+    /**
+     * Ціль перемістилась — влучання в неї перераховуються від її нової позиції.
+     */
+    void targetMoved(Droid target, long nowMs) {
+        if (impacts.isEmpty()) return;
+        int targetId = target.getId();
+        for (Iterator<LaserProjectile> it = impacts.iterator(); it.hasNext(); ) {
+            LaserProjectile p = it.next();
+            if (p.getTargetId() == targetId) {
+                retargeted.add(p);
+                it.remove();
+            }
+        }
+        for (int i = 0; i < retargeted.size(); i++) {
+            scheduleImpact(retargeted.get(i), target, nowMs);
+        }
+        retargeted.clear();
+    }
+
+    /**
+     * Гасить перший активний снаряд attacker -> target (влучання з реплею).
+     */
+    void removeFirst(int attackerId, int targetId) {
+        for (int k = 0; k < projectiles.size(); k++) {
+            LaserProjectile p = projectiles.get(k);
+            if (p.isActive() && p.getAttackerId() == attackerId && p.getTargetId() == targetId) {
+                p.deactivate();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Стан снарядів для знімка бою; аналітичні влучання — з позицією на момент nowMs.
+     */
+    List<BattleCheckpoint.ProjectileState> capture(long nowMs) {
+        List<BattleCheckpoint.ProjectileState> shots = new ArrayList<>(projectiles.size() + impacts.size());
+        for (LaserProjectile p : projectiles) {
+            if (!p.isActive()) continue;
+            shots.add(new BattleCheckpoint.ProjectileState(p.getExactX(), p.getExactY(), p.getVx(), p.getVy(),
+                    p.getAttackerId(), p.getTargetId(), p.willHit(), p.getPlannedDamage()));
+        }
+        for (LaserProjectile p : impacts) {
+            // позиція на поточний момент — тією ж формулою, що й у польоті
+            p.update(nowMs - p.getLaunchMs() - p.getFlightMs());
+            shots.add(new BattleCheckpoint.ProjectileState(p.getExactX(), p.getExactY(), p.getVx(), p.getVy(),
+                    p.getAttackerId(), p.getTargetId(), true, p.getPlannedDamage()));
+        }
+        return shots;
+    }
+
+    /**
+     * Прибирає всі снаряди (у пул) — новий бій або перемотка.
+     */
+    void clear() {
+        for (int i = 0; i < projectiles.size(); i++) {
+            release(projectiles.get(i));
+        }
+        projectiles.clear();
+        for (LaserProjectile p : impacts) {
+            release(p);
+        }
+        impacts.clear();
+        phaseMs = -1;
+    }
+
+    private void launchAnalytic(double x, double y, double vx, double vy,
+                                int attackerId, Droid target, int damage, long nowMs) {
+        LaserProjectile p = obtain(x, y, vx, vy, attackerId, target.getId(), true, damage);
+        p.setLaunchMs(nowMs);
+        p.setSeq(shotSeq++);
+        scheduleImpact(p, target, nowMs);
+    }
+
+    /**
+     * Планує влучання снаряда в поточну позицію цілі.
+     * Найближча перевірка — на цьому кроці, якщо снаряди ще не оброблялись, інакше на наступному.
+     */
+    private void scheduleImpact(LaserProjectile p, Droid target, long nowMs) {
+        long firstCheckMs = (phaseMs == nowMs) ? nowMs + stepMs : nowMs;
+        long fromFlightMs = firstCheckMs - p.getLaunchMs();
+        // перша перевірка — після першого кроку польоту; за полем снаряд зникає назавжди
+        long leftAt = p.stepsToLeavePanel(stepMs, stepMs, panelW, panelH);
+        long leavesMs = (leftAt == LaserProjectile.NEVER)
+                ? LaserProjectile.NEVER : p.getLaunchMs() + stepMs + leftAt * stepMs;
+        if (leavesMs < firstCheckMs) {
+            release(p);
+            return;
+        }
+        long k = p.stepsToImpact(fromFlightMs, stepMs, target.getBounds(bounds), panelW, panelH);
+        p.setImpactMs((k == LaserProjectile.NEVER) ? LaserProjectile.NEVER : firstCheckMs + k * stepMs, leavesMs);
+        impacts.add(p);
+    }
+
+    private LaserProjectile obtain(double x, double y, double vx, double vy,
+                                   int attackerId, int targetId, boolean hit, int damage) {
+        LaserProjectile p = pool.poll();
+        if (p == null) {
+            return new LaserProjectile(x, y, vx, vy, attackerId, targetId, hit, damage);
+        }
+        p.reset(x, y, vx, vy, attackerId, targetId, hit, damage);
+        return p;
+    }
+
+    private void release(LaserProjectile p) {
+        p.deactivate();
+        pool.push(p);
+    }
+}
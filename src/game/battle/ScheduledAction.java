@@ -2,25 +2,91 @@ package game.battle;
 
 /**
  * Запланована дія всередині BattleEngine.
+ *
+ * Час виконання абсолютний (мс бою), seq — порядок планування;
+ * ownerId — дроїд, з яким повʼязана дія (для скасування), або ActionScheduler.NO_OWNER.
+ *
+ * Дія — або Runnable, або вид (kind) з трьома цілими аргументами, який виконує
+ * обробник планувальника; другий варіант не створює лямбд на кожен постріл.
+ * Обʼєкти перевикористовує ActionScheduler, тож поза виконанням дії посилання на неї не тримають.
  */
 public class ScheduledAction {
-    private long remainingMs;
-    private final Runnable action;
+    private long dueMs;
+    private long seq;
+    private int ownerId;
+    private Runnable action;
+    private int kind;
+    private int a;
+    private int b;
+    private int c;
+    private boolean cancelled;
 
-    public ScheduledAction(long delayMs, Runnable action) {
-        this.remainingMs = Math.max(0, delayMs);
+    ScheduledAction() {
+    }
+
+    void init(long dueMs, long seq, int ownerId, Runnable action, int kind, int a, int b, int c) {
+        this.dueMs = dueMs;
+        this.seq = seq;
+        this.ownerId = ownerId;
         this.action = action;
+        this.kind = kind;
+        this.a = a;
+        this.b = b;
+        this.c = c;
+        this.cancelled = false;
+    }
+
+    public long getDueMs() {
+        return dueMs;
+    }
+
+    long getSeq() {
+        return seq;
+    }
+
+    public int getOwnerId() {
+        return ownerId;
+    }
+
+    public int getKind() {
+        return kind;
+    }
+
+    public int getA() {
+        return a;
+    }
+
+    public int getB() {
+        return b;
     }
 
-    public void tick(long deltaMs) {
-        remainingMs -= deltaMs;
+    public int getC() {
+        return c;
     }
 
-    public boolean isReady() {
-        return remainingMs <= 0;
+    boolean hasRunnable() {
+        return action != null;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isReady(long nowMs) {
+        return dueMs <= nowMs;
     }
 
     public void run() {
-        if (action != null) action.run();
+        if (!cancelled && action != null) action.run();
+    }
+
+    // перед поверненням у пул: не тримаємо лямбду
+    void release() {
+        action = null;
+        cancelled = true;
     }
 }
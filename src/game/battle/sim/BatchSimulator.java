@@ -0,0 +1,147 @@
+package game.battle.sim;
+
+import game.battle.BattleEngine;
+import game.battle.BattleMode;
+import game.battle.BattleScenario;
+import game.battle.BattleSide;
+import game.droid.DroidBlueprint;
+import game.droid.DroidType;
+import game.util.SpriteLoader;
+
+import java.awt.Dimension;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+
+/**
+ * Пакетна «безголова» симуляція: проганяє багато незалежних BattleEngine
+ * паралельно на ForkJoinPool і збирає статистику.
+ *
+ * Swing не використовується, події у консоль не друкуються. Файли зображень
+ * не читаються: поки симулятор відкритий, SpriteLoader повертає порожні кадри
+ * тих самих розмірів (результати боїв ті самі); close() повертає попередній режим.
+ * Кожен бій має власний seed (від seed серії та номера бою), тож результат
+ * не залежить від того, у якому потоці і порядку виконувались бої.
+ */
+public class BatchSimulator implements AutoCloseable {
+    private static final Dimension PANEL_SIZE = new Dimension(1000, 700);
+
+    private final ForkJoinPool pool;
+    // Режим SpriteLoader до створення симулятора (відновлюється в close)
+    private final boolean imagesWereEnabled;
+
+    public BatchSimulator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchSimulator(int parallelism) {
+        this.imagesWereEnabled = SpriteLoader.isImagesEnabled();
+        SpriteLoader.setImagesEnabled(false);
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    public SimulationReport run(SimulationSpec spec) {
+        long startNs = System.nanoTime();
+        Accumulator acc;
+        try {
+            acc = pool.submit(() -> IntStream.range(0, spec.getBattles())
+                    .parallel()
+                    .mapToObj(i -> runSingle(spec, i))
+                    .collect(Collector.of(Accumulator::new, Accumulator::add, Accumulator::merge))
+            ).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Симуляцію перервано", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Помилка симуляції: " + e.getCause(), e.getCause());
+        }
+        long wallMs = (System.nanoTime() - startNs) / 1_000_000L;
+        return acc.toReport(spec, wallMs);
+    }
+
+    public List<SimulationReport> runAll(List<SimulationSpec> specs) {
+        List<SimulationReport> reports = new ArrayList<>();
+        for (SimulationSpec spec : specs) {
+            reports.add(run(spec));
+        }
+        return reports;
+    }
+
+    /**
+     * Один бій серії у поточному потоці.
+     */
+    public static BattleOutcome runSingle(SimulationSpec spec, int index) {
+        List<DroidBlueprint> left = createTeam(spec.getLeftTeam(), 1);
+        List<DroidBlueprint> right = createTeam(spec.getRightTeam(), left.size() + 1);
+
+        BattleMode mode = (left.size() == 1 && right.size() == 1) ? BattleMode.ONE_VS_ONE : BattleMode.TEAM_VS_TEAM;
+        BattleScenario scenario = new BattleScenario(mode, left, right, spec.battleSeed(index), spec.getStepMs());
+        BattleEngine engine = new BattleEngine(scenario, PANEL_SIZE, false);
+        // снаряди ніхто не бачить — влучання рахуються наперед
+        engine.setAnalyticProjectiles(true);
+
+        engine.runToFinish();
+
+        return new BattleOutcome(
+                engine.getResult().getWinnerSide(),
+                engine.getElapsedMs(),
+                engine.getDamageDealt(BattleSide.LEFT),
+                engine.getDamageDealt(BattleSide.RIGHT)
+        );
+    }
+
+    private static List<DroidBlueprint> createTeam(List<DroidType> types, int firstId) {
+        List<DroidBlueprint> team = new ArrayList<>(types.size());
+        int id = firstId;
+        for (DroidType t : types) {
+            team.add(new DroidBlueprint(id, t, t.getDisplayName() + "-" + id));
+            id++;
+        }
+        return team;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+        SpriteLoader.setImagesEnabled(imagesWereEnabled);
+    }
+
+    /**
+     * Накопичувач для паралельного збору (окремий на кожну гілку fork-join).
+     */
+    private static final class Accumulator {
+        private int battles;
+        private int leftWins;
+        private int rightWins;
+        private long totalDurationMs;
+        private long leftDamage;
+        private long rightDamage;
+
+        void add(BattleOutcome o) {
+            battles++;
+            if (o.getWinner() == BattleSide.LEFT) leftWins++;
+            else rightWins++;
+            totalDurationMs += o.getDurationMs();
+            leftDamage += o.getLeftDamage();
+            rightDamage += o.getRightDamage();
+        }
+
+        Accumulator merge(Accumulator other) {
+            battles += other.battles;
+            leftWins += other.leftWins;
+            rightWins += other.rightWins;
+            totalDurationMs += other.totalDurationMs;
+            leftDamage += other.leftDamage;
+            rightDamage += other.rightDamage;
+            return this;
+        }
+
+        SimulationReport toReport(SimulationSpec spec, long wallTimeMs) {
+            return new SimulationReport(spec, battles, leftWins, rightWins,
+                    totalDurationMs, leftDamage, rightDamage, wallTimeMs);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package game.battle.sim;
+
+import game.battle.BattleSide;
+
+/**
+ * Підсумок одного бою серії.
+ */
+public class BattleOutcome {
+    private final BattleSide winner;
+    private final long durationMs;
+    private final long leftDamage;
+    private final long rightDamage;
+
+    public BattleOutcome(BattleSide winner, long durationMs, long leftDamage, long rightDamage) {
+        this.winner = winner;
+        this.durationMs = durationMs;
+        this.leftDamage = leftDamage;
+        this.rightDamage = rightDamage;
+    }
+
+    public BattleSide getWinner() {
+        return winner;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public long getLeftDamage() {
+        return leftDamage;
+    }
+
+    public long getRightDamage() {
+        return rightDamage;
+    }
+}
@@ -0,0 +1,77 @@
+package game.battle.sim;
+
+import java.util.Locale;
+
+/**
+ * Агреговані результати серії боїв.
+ */
+public class SimulationReport {
+    private final SimulationSpec spec;
+    private final int battles;
+    private final int leftWins;
+    private final int rightWins;
+    private final long totalDurationMs;
+    private final long leftDamage;
+    private final long rightDamage;
+    private final long wallTimeMs;
+
+    public SimulationReport(SimulationSpec spec, int battles, int leftWins, int rightWins,
+                            long totalDurationMs, long leftDamage, long rightDamage, long wallTimeMs) {
+        this.spec = spec;
+        this.battles = battles;
+        this.leftWins = leftWins;
+        this.rightWins = rightWins;
+        this.totalDurationMs = totalDurationMs;
+        this.leftDamage = leftDamage;
+        this.rightDamage = rightDamage;
+        this.wallTimeMs = wallTimeMs;
+    }
+
+    public SimulationSpec getSpec() {
+        return spec;
+    }
+
+    public int getBattles() {
+        return battles;
+    }
+
+    public int getLeftWins() {
+        return leftWins;
+    }
+
+    public int getRightWins() {
+        return rightWins;
+    }
+
+    public double getLeftWinRate() {
+        return battles == 0 ? 0.0 : (double) leftWins / battles;
+    }
+
+    public double getRightWinRate() {
+        return battles == 0 ? 0.0 : (double) rightWins / battles;
+    }
+
+    public double getAverageDurationMs() {
+        return battles == 0 ? 0.0 : (double) totalDurationMs / battles;
+    }
+
+    public long getLeftDamage() {
+        return leftDamage;
+    }
+
+    public long getRightDamage() {
+        return rightDamage;
+    }
+
+    public long getWallTimeMs() {
+        return wallTimeMs;
+    }
+
+    public String format() {
+        return String.format(Locale.ROOT,
+                "%s | боїв: %d | LEFT: %.1f%% | RIGHT: %.1f%% | сер. тривалість: %.0f мс | шкода L/R: %d/%d | час: %d мс",
+                spec.describe(), battles,
+                getLeftWinRate() * 100.0, getRightWinRate() * 100.0,
+                getAverageDurationMs(), leftDamage, rightDamage, wallTimeMs);
+    }
+}
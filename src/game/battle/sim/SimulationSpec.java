@@ -0,0 +1,83 @@
+package game.battle.sim;
+
+import game.droid.DroidType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Опис серії однакових боїв для пакетної симуляції:
+ * склад команд, кількість боїв і базовий seed.
+ */
+public class SimulationSpec {
+    public static final long DEFAULT_STEP_MS = 50;
+
+    private final List<DroidType> leftTeam;
+    private final List<DroidType> rightTeam;
+    private final int battles;
+    private final long seed;
+    private final long stepMs;
+
+    public SimulationSpec(List<DroidType> leftTeam, List<DroidType> rightTeam, int battles, long seed) {
+        this(leftTeam, rightTeam, battles, seed, DEFAULT_STEP_MS);
+    }
+
+    public SimulationSpec(List<DroidType> leftTeam, List<DroidType> rightTeam, int battles, long seed, long stepMs) {
+        if (leftTeam == null || leftTeam.isEmpty()) throw new IllegalArgumentException("Ліва команда порожня");
+        if (rightTeam == null || rightTeam.isEmpty()) throw new IllegalArgumentException("Права команда порожня");
+        if (battles <= 0) throw new IllegalArgumentException("Кількість боїв має бути > 0");
+        this.leftTeam = new ArrayList<>(leftTeam);
+        this.rightTeam = new ArrayList<>(rightTeam);
+        this.battles = battles;
+        this.seed = seed;
+        this.stepMs = Math.max(1, stepMs);
+    }
+
+    public List<DroidType> getLeftTeam() {
+        return Collections.unmodifiableList(leftTeam);
+    }
+
+    public List<DroidType> getRightTeam() {
+        return Collections.unmodifiableList(rightTeam);
+    }
+
+    public int getBattles() {
+        return battles;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getStepMs() {
+        return stepMs;
+    }
+
+    /**
+     * Seed для конкретного бою серії (не залежить від порядку виконання потоками).
+     */
+    public long battleSeed(int index) {
+        return seed ^ (index * 0x9E3779B97F4A7C15L);
+    }
+
+    public String describe() {
+        return teamToString(leftTeam) + " vs " + teamToString(rightTeam);
+    }
+
+    // Однакові типи підряд згортаємо у «Тип*N» (той самий синтаксис, що й у CLI)
+    private static String teamToString(List<DroidType> team) {
+        StringBuilder sb = new StringBuilder();
+        int i = 0;
+        while (i < team.size()) {
+            DroidType t = team.get(i);
+            int run = 1;
+            while (i + run < team.size() && team.get(i + run) == t) run++;
+            if (sb.length() > 0) sb.append(',');
+            sb.append(t.getDisplayName());
+            if (run > 1) sb.append('*').append(run);
+            i += run;
+        }
+        return sb.toString();
+    }
+}
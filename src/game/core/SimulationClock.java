@@ -0,0 +1,29 @@
+package game.core;
+
+/**
+ * Годинник симуляції: час бою в мс, який рухає BattleEngine фіксованими кроками.
+ * Дроїди читають його замість системного часу, тому однаковий сценарій
+ * завжди дає однаковий результат.
+ */
+public class SimulationClock {
+    private long nowMs;
+
+    public long nowMs() {
+        return nowMs;
+    }
+
+    public void advance(long deltaMs) {
+        if (deltaMs > 0) nowMs += deltaMs;
+    }
+
+    public void reset() {
+        nowMs = 0;
+    }
+
+    /**
+     * Переставляє годинник на заданий момент (перемотка реплею).
+     */
+    public void reset(long nowMs) {
+        this.nowMs = Math.max(0, nowMs);
+    }
+}
@@ -0,0 +1,15 @@
+package game.droid;
+
+/**
+ * Стан анімації дроїда. Кожен стан має свою таблицю кадрів (див. Droid).
+ */
+public enum AnimationState {
+    IDLE,
+    WALK,
+    ATTACK,
+    HEAL,
+    HIT,
+    DEFEAT;
+
+    static final int COUNT = values().length;
+}
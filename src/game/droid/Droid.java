@@ -1,6 +1,6 @@
 package game.droid;
 
-import game.battle.effects.RedBulletManager;
+import game.core.SimulationClock;
 import game.util.SpriteLoader;
 import java.awt.*;
 
@@ -32,16 +32,25 @@ public class Droid {
     private int dy;
 
     // ----------- VISUALS / ANIMATION -----------
-    private final Image[] walkFrames;
-    private final Image[] attackFrames;
-    private final Image[] defeatFrames;
+    // Кадри для кожного стану (індекс — AnimationState.ordinal()), готові при створенні;
+    // таблиця ніколи не порожня, тож вибір кадру — лише індексація
+    private final Image[][] stateFrames = new Image[AnimationState.COUNT][];
+    // Ті самі таблиці з заздалегідь віддзеркаленими кадрами (спільні через кеш SpriteLoader)
+    private final Image[][] stateFramesMirrored = new Image[AnimationState.COUNT][];
+    private final boolean hasAttackAnimation;
 
-    private int currentFrame = 0;
     private int frameCount;
-    private String state = "idle";
+    private AnimationState state = AnimationState.IDLE;
 
     private long frameDurationMs = 120; // час між кадрами
-    private long lastFrameSwitchMs = System.currentTimeMillis();
+
+    // Поза боєм час не йде — дроїд показує перший кадр
+    private static final SimulationClock STOPPED_CLOCK = new SimulationClock();
+
+    // Годинник бою. Кадр рахується з нього лише тоді, коли його просять,
+    // тож без відмалювання анімація нічого не коштує
+    private SimulationClock clock = STOPPED_CLOCK;
+    private long stateSinceMs = 0;
 
     private boolean mirrored = false;
     private Boolean mirrorOverride = null;
@@ -49,8 +58,15 @@ public class Droid {
     // Тільки для non-phantom: тривалість стану "attack"
     private long attackStateUntilMs = 0;
 
-    // Миготіння (поразка/смерть)
-    private int blinkFramesLeft = 0;
+    // Миготіння (поразка/смерть): фази по BLINK_PHASE_MS до blinkUntilMs
+    private static final long BLINK_PHASE_MS = 16;
+    private static final int BLINK_PHASES = 6; // 3 миготіння
+    private long blinkUntilMs = 0;
+
+    // Розмір поточного кадру для getBounds()/intersects(); перераховується лише при зміні кадру
+    private int boundsWidth = 1;
+    private int boundsHeight = 1;
+    private Image boundsFrame;
 
     public Droid(
             int id,
@@ -86,15 +102,33 @@ public class Droid {
         this.xPosition = xPosition;
         this.yPosition = yPosition;
 
-        this.walkFrames = (walkFrames != null && walkFrames.length > 0)
+        Image[] walk = (walkFrames != null && walkFrames.length > 0)
                 ? walkFrames
-                : new Image[]{SpriteLoader.placeholder(96, 96, "NO_WALK")};
-        this.attackFrames = (attackFrames != null) ? attackFrames : new Image[0];
-        this.defeatFrames = (defeatFrames != null && defeatFrames.length > 0)
+                : new Image[]{SpriteLoader.missingFrame()};
+        Image[] defeat = (defeatFrames != null && defeatFrames.length > 0)
                 ? defeatFrames
-                : new Image[]{this.walkFrames[0]};
+                : new Image[]{walk[0]};
+        this.hasAttackAnimation = attackFrames != null && attackFrames.length > 0;
+        // без власних кадрів атака/лікування показуються кадрами ходьби
+        Image[] attack = hasAttackAnimation ? attackFrames : walk;
+
+        for (AnimationState s : AnimationState.values()) {
+            stateFrames[s.ordinal()] = switch (s) {
+                case IDLE, WALK, HIT -> walk;
+                case ATTACK, HEAL -> attack;
+                case DEFEAT -> defeat;
+            };
+        }
+        Image[] walkMirrored = SpriteLoader.mirrored(walk);
+        Image[] attackMirrored = hasAttackAnimation ? SpriteLoader.mirrored(attack) : walkMirrored;
+        Image[] defeatMirrored = SpriteLoader.mirrored(defeat);
+        for (AnimationState s : AnimationState.values()) {
+            Image[] source = stateFrames[s.ordinal()];
+            stateFramesMirrored[s.ordinal()] = (source == walk) ? walkMirrored
+                    : (source == attack) ? attackMirrored : defeatMirrored;
+        }
 
-        this.frameCount = Math.max(1, this.walkFrames.length);
+        this.frameCount = walk.length;
     }
 
     // -------------------- GETTERS --------------------
@@ -114,6 +148,7 @@ public class Droid {
     public int getYPosition() { return yPosition; }
     public boolean isMirrored() { return mirrored; }
     public Boolean getMirrorOverride() { return mirrorOverride; }
+    public AnimationState getState() { return state; }
 
     // -------------------- SETTERS --------------------
     public void setName(String name) { this.name = name; }
@@ -139,20 +174,21 @@ public class Droid {
     public void setAnimationFrameDuration(long millis) {
         this.frameDurationMs = Math.max(16, millis);
     }
+    public void setClock(SimulationClock clock) {
+        this.clock = (clock != null) ? clock : STOPPED_CLOCK;
+    }
+
+    private long nowMs() {
+        return clock.nowMs();
+    }
 
     // -------------------- STATE / VISUAL --------------------
-    public void setState(String state) {
-        if (state == null) state = "idle";
-        if (!this.state.equals(state)) {
+    public void setState(AnimationState state) {
+        if (state == null) state = AnimationState.IDLE;
+        if (this.state != state) {
             this.state = state;
-            this.frameCount = switch (state) {
-                case "walk", "idle" -> walkFrames.length;
-                case "attack", "heal", "hit" -> hasAttackAnimation() ? attackFrames.length : walkFrames.length;
-                case "defeat" -> defeatFrames.length;
-                default -> 1;
-            };
-            if (this.frameCount <= 0) this.frameCount = 1;
-            currentFrame = 0;
+            this.frameCount = stateFrames[state.ordinal()].length;
+            stateSinceMs = nowMs();
         }
     }
 
@@ -160,41 +196,32 @@ public class Droid {
         xPosition += dx;
         yPosition += dy;
 
-        if (!hasAttackAnimation() && "attack".equals(state)) {
-            if (System.currentTimeMillis() > attackStateUntilMs) {
-                setState("idle");
+        if (state == AnimationState.ATTACK && !hasAttackAnimation) {
+            if (nowMs() > attackStateUntilMs) {
+                setState(AnimationState.IDLE);
             }
         }
     }
 
+    /**
+     * Кадр на поточний момент годинника бою (номер кадру — від початку стану).
+     */
     public Image getCurrentFrameImage() {
-        return selectFrame(false);
-    }
-
-    private Image selectFrame(boolean advanceFrame) {
-        Image frame;
-        if (blinkFramesLeft > 0) {
-            boolean useDefeat = (blinkFramesLeft % 2 == 0);
-            frame = useDefeat ? safeFrame(defeatFrames, currentFrame) : safeFrame(walkFrames, currentFrame);
+        long now = nowMs();
+        Image[][] tables = mirrored ? stateFramesMirrored : stateFrames;
+        Image[] frames;
+        long blinkLeftMs = blinkUntilMs - now;
+        if (blinkLeftMs > 0) {
+            // миготіння: кадри поразки через раз із кадрами ходьби
+            long phase = (blinkLeftMs + BLINK_PHASE_MS - 1) / BLINK_PHASE_MS;
+            frames = tables[(phase % 2 == 0) ? AnimationState.DEFEAT.ordinal() : AnimationState.WALK.ordinal()];
         } else {
-            switch (state) {
-                case "attack", "heal" -> frame = hasAttackAnimation()
-                        ? safeFrame(attackFrames, currentFrame)
-                        : safeFrame(walkFrames, currentFrame);
-                case "defeat" -> frame = safeFrame(defeatFrames, currentFrame);
-                case "walk", "idle", "hit" -> frame = safeFrame(walkFrames, currentFrame);
-                default -> frame = safeFrame(walkFrames, 0);
-            }
+            frames = tables[state.ordinal()];
         }
-
-        if (advanceFrame) {
-            long now = System.currentTimeMillis();
-            if (now - lastFrameSwitchMs >= frameDurationMs) {
-                currentFrame = (currentFrame + 1) % Math.max(1, frameCount);
-                lastFrameSwitchMs = now;
-            }
-        }
-        return frame;
+        // після перемотки реплею назад годинник може бути раніше за початок стану
+        long sinceMs = Math.max(0, now - stateSinceMs);
+        int index = (int) ((sinceMs / frameDurationMs) % frameCount);
+        return frames[Math.min(index, frames.length - 1)];
     }
 
     public void draw(Graphics g) {
@@ -203,79 +230,64 @@ public class Droid {
 
     public void draw(Graphics g, boolean mirror) {
         this.mirrored = mirror;
-        Image frame = selectFrame(true);
-        int w = frame.getWidth(null);
-        int h = frame.getHeight(null);
-        if (w <= 0) w = 1;
-        if (h <= 0) h = 1;
-
-        if (!mirror) {
-            g.drawImage(frame, xPosition, yPosition, null);
-        } else {
-            g.drawImage(frame, xPosition + w, yPosition, -w, h, null);
-        }
+        // кадр уже віддзеркалений, якщо треба
+        g.drawImage(getCurrentFrameImage(), xPosition, yPosition, null);
+    }
 
-        if (blinkFramesLeft > 0) {
-            blinkFramesLeft--;
-        }
+    public Rectangle getBounds() {
+        return getBounds(new Rectangle());
     }
 
-    private Image safeFrame(Image[] frames, int index) {
-        if (frames == null || frames.length == 0) {
-            return SpriteLoader.placeholder(96, 96, "NO_FRAME");
-        }
-        int i = Math.max(0, Math.min(index, frames.length - 1));
-        return frames[i];
+    /**
+     * Межі у наданий прямокутник (без створення нового).
+     */
+    public Rectangle getBounds(Rectangle into) {
+        updateBoundsSize();
+        into.setBounds(xPosition, yPosition, boundsWidth, boundsHeight);
+        return into;
     }
 
-    public Rectangle getBounds() {
+    /**
+     * Те саме, що getBounds().intersects(...), але без створення Rectangle.
+     */
+    public boolean intersects(int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) return false;
+        updateBoundsSize();
+        return x + width > xPosition && y + height > yPosition
+                && xPosition + boundsWidth > x && yPosition + boundsHeight > y;
+    }
+
+    private void updateBoundsSize() {
         Image frame = getCurrentFrameImage();
-        int w = Math.max(1, frame.getWidth(null));
-        int h = Math.max(1, frame.getHeight(null));
-        return new Rectangle(xPosition, yPosition, w, h);
+        if (frame == boundsFrame) return;
+        boundsWidth = Math.max(1, frame.getWidth(null));
+        boundsHeight = Math.max(1, frame.getHeight(null));
+        boundsFrame = frame;
     }
 
     // -------------------- MOVEMENT --------------------
     public void move(int dx, int dy) {
         this.dx = dx;
         this.dy = dy;
-        setState("walk");
+        setState(AnimationState.WALK);
     }
 
     public void stop() {
         dx = 0;
         dy = 0;
-        setState("idle");
+        setState(AnimationState.IDLE);
     }
 
     // -------------------- ATTACK LOGIC --------------------
     public boolean hasAttackAnimation() {
-        return attackFrames != null && attackFrames.length > 0;
-    }
-
-    public boolean usesRedBullets() {
-        return !hasAttackAnimation();
+        return hasAttackAnimation;
     }
 
     public void attack() {
-        setState("attack");
+        setState(AnimationState.ATTACK);
 
-        if (!hasAttackAnimation()) {
-            attackStateUntilMs = System.currentTimeMillis() + 200;
-        }
-    }
-
-    public void attack(Droid target) {
-        if (target == null) {
-            attack();
-            return;
-        }
-
-        setState("attack");
-
-        if (usesRedBullets()) {
-            RedBulletManager.spawn(this, target, damage);
-            attackStateUntilMs = System.currentTimeMillis() + 200;
+        if (!hasAttackAnimation) {
+            attackStateUntilMs = nowMs() + 200;
         }
     }
 
@@ -299,12 +311,12 @@ public class Droid {
     }
 
     public void healState() {
-        setState("heal");
+        setState(AnimationState.HEAL);
     }
 
     public void hit() {
-        setState("hit");
-        blinkFramesLeft = Math.max(blinkFramesLeft, 6); // мінімум 3 миготіння
+        setState(AnimationState.HIT);
+        startBlink();
     }
 
     public boolean isDead() {
@@ -316,19 +328,23 @@ public class Droid {
     }
 
     public void die() {
-        setState("defeat");
-        blinkFramesLeft = Math.max(blinkFramesLeft, 6);
+        setState(AnimationState.DEFEAT);
+        startBlink();
+    }
+
+    private void startBlink() {
+        blinkUntilMs = Math.max(blinkUntilMs, nowMs() + BLINK_PHASES * BLINK_PHASE_MS);
     }
 
     // -------------------- BULLET HELPERS --------------------
     public int getSpriteWidth() {
-        Image img = safeFrame(walkFrames, 0);
+        Image img = stateFrames[AnimationState.WALK.ordinal()][0];
         int w = img.getWidth(null);
         return (w > 0) ? w : 1;
     }
 
     public int getSpriteHeight() {
-        Image img = safeFrame(walkFrames, 0);
+        Image img = stateFrames[AnimationState.WALK.ordinal()][0];
         int h = img.getHeight(null);
         return (h > 0) ? h : 1;
     }
@@ -357,7 +373,6 @@ public class Droid {
         System.out.println("Accuracy: " + accuracy);
         System.out.println("Can Heal Allies: " + canHealAllies);
         System.out.println("Has Attack Animation: " + hasAttackAnimation());
-        System.out.println("Uses Red Bullets: " + usesRedBullets());
     }
 
     // -------------------- BATTLE LIFECYCLE --------------------
@@ -369,10 +384,9 @@ public class Droid {
         attackStateUntilMs = 0;
         mirrored = false;
         mirrorOverride = null;
-        blinkFramesLeft = 0;
-        lastFrameSwitchMs = System.currentTimeMillis();
-        setState("idle");
-        currentFrame = 0;
+        blinkUntilMs = 0;
+        setState(AnimationState.IDLE);
+        stateSinceMs = nowMs();
     }
 }
 
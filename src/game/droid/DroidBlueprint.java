@@ -0,0 +1,43 @@
+package game.droid;
+
+/**
+ * Незмінний опис дроїда зі списку гравця: id, тип, імʼя та базові характеристики.
+ *
+ * Сам у бою не бере участі: кожен бій створює з нього власний Droid (newCombatInstance),
+ * тож один і той самий опис можна одночасно використовувати в багатьох боях і потоках.
+ */
+public final class DroidBlueprint {
+    private final int id;
+    private final DroidType type;
+    private final String name;
+
+    public DroidBlueprint(int id, DroidType type, String name) {
+        if (type == null) throw new IllegalArgumentException("DroidType is null");
+        this.id = id;
+        this.type = type;
+        this.name = (name != null) ? name : type.getDisplayName();
+    }
+
+    public int getId() { return id; }
+    public DroidType getType() { return type; }
+    public String getName() { return name; }
+    public String getModel() { return type.getDisplayName(); }
+    public int getMaxHealth() { return type.getBaseHealth(); }
+    public int getDamage() { return type.getBaseDamage(); }
+    public int getMaxEnergy() { return type.getBaseEnergy(); }
+    public int getAccuracy() { return type.getAccuracy(); }
+    public boolean canHealAllies() { return type.canHealAllies(); }
+
+    /**
+     * Новий дроїд для одного бою: повне HP/енергія, позиція (0, 0).
+     * Кадри беруться зі спільного кешу SpriteLoader, тож створення дешеве.
+     */
+    public Droid newCombatInstance() {
+        return DroidFactory.create(type, id, name, 0, 0);
+    }
+
+    @Override
+    public String toString() {
+        return "DroidBlueprint{id=" + id + ", type=" + type + ", name='" + name + "'}";
+    }
+}
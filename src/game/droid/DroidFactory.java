@@ -21,4 +21,14 @@ public final class DroidFactory {
             case PHANTOM -> new Phantom(id, name, x, y);
         };
     }
+
+    /**
+     * Прогріває кеш спрайтів: по одному дроїду кожного типу.
+     * Після цього створення дроїдів не читає файлів і не масштабує зображень.
+     */
+    public static void preloadSprites() {
+        for (DroidType type : DroidType.values()) {
+            create(type, 0, type.getDisplayName(), 0, 0);
+        }
+    }
 }
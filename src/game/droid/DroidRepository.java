@@ -6,19 +6,22 @@ import java.util.List;
 
 /**
  * Зберігає створених користувачем дроїдів (список для меню, вибору бою тощо).
+ *
+ * Тут лише незмінні описи (DroidBlueprint): бій створює з них власних дроїдів,
+ * тож список не змінюється боями і його можна ділити між кількома боями одночасно.
  */
 public class DroidRepository {
-    private final List<Droid> droids = new ArrayList<>();
+    private final List<DroidBlueprint> droids = new ArrayList<>();
     private int nextId = 1;
 
-    public synchronized Droid createAndAdd(DroidType type, String name) {
+    public synchronized DroidBlueprint createAndAdd(DroidType type, String name) {
         int id = nextId++;
-        Droid droid = DroidFactory.create(type, id, name, 0, 0);
+        DroidBlueprint droid = new DroidBlueprint(id, type, name);
         droids.add(droid);
         return droid;
     }
 
-    public synchronized void add(Droid droid) {
+    public synchronized void add(DroidBlueprint droid) {
         if (droid == null) return;
         // якщо хтось додає зовні, підстрахуємося: оновимо nextId
         if (droid.getId() >= nextId) {
@@ -27,7 +30,7 @@ public class DroidRepository {
         droids.add(droid);
     }
 
-    public synchronized List<Droid> getAll() {
+    public synchronized List<DroidBlueprint> getAll() {
         return Collections.unmodifiableList(new ArrayList<>(droids));
     }
 
@@ -35,8 +38,8 @@ public class DroidRepository {
         return droids.size();
     }
 
-    public synchronized Droid findById(int id) {
-        for (Droid d : droids) {
+    public synchronized DroidBlueprint findById(int id) {
+        for (DroidBlueprint d : droids) {
             if (d.getId() == id) return d;
         }
         return null;
@@ -49,7 +52,7 @@ public class DroidRepository {
     public synchronized String formatForSelection() {
         if (droids.isEmpty()) return "(порожньо)";
         StringBuilder sb = new StringBuilder();
-        for (Droid d : droids) {
+        for (DroidBlueprint d : droids) {
             sb.append("Id: ").append(d.getId()).append(" | ")
                     .append(d.getName()).append(" | ")
                     .append(d.getModel())
@@ -61,7 +64,7 @@ public class DroidRepository {
     public synchronized String formatForView() {
         if (droids.isEmpty()) return "Дроїдів немає.";
         StringBuilder sb = new StringBuilder();
-        for (Droid d : droids) {
+        for (DroidBlueprint d : droids) {
             sb.append("Id: ").append(d.getId()).append('\n');
             sb.append("Ім'я: ").append(d.getName()).append('\n');
             sb.append("Вид дроїда: ").append(d.getModel()).append("\n\n");
@@ -0,0 +1,345 @@
+package game.main;
+
+import game.battle.BattleLoop;
+import game.battle.BattleSide;
+import game.battle.FrameSnapshot;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Полотно бою з активним відмалюванням через BufferStrategy.
+ *
+ * Власний потік малює останній знімок BattleLoop приблизно 60 разів на секунду,
+ * не чекаючи на EDT. Фон масштабується один раз на розмір вікна, таблиця HP
+ * перемальовується лише коли змінюється чиєсь здоровʼя; у звичайному кадрі
+ * обʼєкти не створюються.
+ */
+class BattleCanvas extends Canvas {
+    private static final long FRAME_NS = 16_000_000L;
+
+    private static final Color SELECTION_COLOR = new Color(0, 255, 255, 180);
+    private static final BasicStroke SELECTION_STROKE = new BasicStroke(3);
+    private static final int STATS_TOP = 30;
+    private static final int STATS_LINE = 18;
+    private static final String REPLAY_KEYS = "1/2/8/M — швидкість, ←/→ — 10 с, Home — на початок";
+
+    private final Image background;
+
+    private volatile BattleLoop loop;
+    private volatile String overlayMessage;
+    private volatile int selectedAttackerId = -1;
+    // Тривалість реплею, мс; -1 — звичайний бій (без панелі перемотки)
+    private volatile long replayDurationMs = -1;
+
+    // Поточний потік відмалювання; старий потік завершується, щойно бачить, що його замінили
+    private volatile Thread renderThread;
+    // Зупинений потік, який ще може домальовувати свій кадр (новий потік чекає на нього)
+    private Thread stoppedThread;
+
+    // -------- Кеші (доступ лише з потоку відмалювання) --------
+    private BufferedImage scaledBackground;
+
+    private BufferedImage statsLayer;
+    private int[] statsHealth = new int[0];
+    private long statsSequence = -1;
+    private BattleLoop statsLoop;
+    private Font statsFont;
+    private int statsFontWidth = -1;
+
+    private Font overlayFont;
+    private int overlayFontWidth = -1;
+
+    // Рядок стану реплею перебудовується раз на 100 мс часу бою або при зміні швидкості
+    private String replayText;
+    private long replayTextTenths = -1;
+    private int replayTextSpeed = -1;
+
+    // Остання надрукована помилка кадру — та сама помилка щокадру друкується один раз
+    private String lastRenderError;
+
+    BattleCanvas(Image background) {
+        this.background = background;
+        setIgnoreRepaint(true);
+        setBackground(Color.BLACK);
+    }
+
+    void setLoop(BattleLoop loop) {
+        this.loop = loop;
+    }
+
+    void setOverlayMessage(String overlayMessage) {
+        this.overlayMessage = overlayMessage;
+    }
+
+    void setSelectedAttackerId(int selectedAttackerId) {
+        this.selectedAttackerId = selectedAttackerId;
+    }
+
+    void setReplayDurationMs(long replayDurationMs) {
+        this.replayDurationMs = replayDurationMs;
+    }
+
+    synchronized void startRendering() {
+        if (renderThread != null) return;
+        Thread previous = stoppedThread;
+        stoppedThread = null;
+        Thread t = new Thread(() -> renderLoop(previous), "battle-render");
+        t.setDaemon(true);
+        renderThread = t;
+        t.start();
+    }
+
+    synchronized void stopRendering() {
+        if (renderThread != null) stoppedThread = renderThread;
+        renderThread = null;
+    }
+
+    @Override
+    public void removeNotify() {
+        stopRendering();
+        super.removeNotify();
+    }
+
+    private void renderLoop(Thread previous) {
+        // кеші й BufferStrategy — лише для одного потоку: спершу даємо старому дописати кадр
+        if (previous != null) {
+            try {
+                previous.join();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+        long next = System.nanoTime();
+        while (renderThread == Thread.currentThread()) {
+            try {
+                renderFrame();
+                lastRenderError = null;
+            } catch (IllegalStateException ignored) {
+                // полотно прибрали з вікна між перевіркою та малюванням — наступний кадр спробує знову
+            } catch (RuntimeException ex) {
+                // кадр пропускаємо, але не мовчки: бій іде далі, наступний кадр спробує знову
+                String error = ex.toString();
+                if (!error.equals(lastRenderError)) {
+                    lastRenderError = error;
+                    System.err.println("[BattleCanvas] Помилка відмалювання кадру: " + error);
+                    ex.printStackTrace();
+                }
+            }
+            next += FRAME_NS;
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else {
+                next = System.nanoTime();
+            }
+        }
+    }
+
+    private void renderFrame() {
+        int w = getWidth();
+        int h = getHeight();
+        if (!isDisplayable() || w <= 0 || h <= 0) return;
+
+        BufferStrategy strategy = getBufferStrategy();
+        if (strategy == null) {
+            createBufferStrategy(2);
+            return;
+        }
+
+        do {
+            do {
+                Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    draw(g, w, h);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    private void draw(Graphics2D g, int w, int h) {
+        g.drawImage(backgroundFor(w, h), 0, 0, null);
+
+        BattleLoop current = loop;
+        if (current != null) {
+            FrameSnapshot snap = current.acquire();
+            try {
+                drawBattle(g, w, h, current, snap);
+            } finally {
+                current.release(snap);
+            }
+        }
+
+        // Повідомлення посередині (переможець)
+        String message = overlayMessage;
+        if (message != null) {
+            if (overlayFontWidth != w) {
+                overlayFont = new Font("Arial", Font.BOLD, Math.max(22, w / 30));
+                overlayFontWidth = w;
+            }
+            g.setFont(overlayFont);
+            g.setColor(Color.WHITE);
+            FontMetrics fm = g.getFontMetrics();
+            int x = (w - fm.stringWidth(message)) / 2;
+            int y = (int) (h * 0.18);
+            g.drawString(message, x, y);
+        }
+    }
+
+    // Бій за знімком: снаряди, дроїди, таблиця HP, рядок реплею
+    private void drawBattle(Graphics2D g, int w, int h, BattleLoop current, FrameSnapshot snap) {
+        // Снаряди домальовуємо з поправкою на час від знімка (не більше кроку)
+        long aheadMs = 0;
+        if (!snap.finished()) {
+            aheadMs = Math.min(snap.stepMs(), (System.nanoTime() - snap.createdNs()) / 1_000_000L);
+        }
+        List<FrameSnapshot.ProjectileView> shots = snap.projectiles();
+        for (int i = 0; i < shots.size(); i++) {
+            shots.get(i).draw(g, aheadMs);
+        }
+
+        int selected = selectedAttackerId;
+        List<FrameSnapshot.DroidView> droids = snap.droids();
+        for (int i = 0; i < droids.size(); i++) {
+            FrameSnapshot.DroidView d = droids.get(i);
+            d.draw(g);
+
+            // обводка для selected attacker
+            if (d.side() == BattleSide.LEFT && d.id() == selected) {
+                g.setColor(SELECTION_COLOR);
+                g.setStroke(SELECTION_STROKE);
+                g.drawRoundRect(d.x() - 4, d.y() - 4, d.width() + 8, d.height() + 8, 12, 12);
+            }
+        }
+
+        // Характеристики зверху
+        g.drawImage(statsLayerFor(current, snap, w), 0, 0, null);
+
+        // Стан реплею знизу
+        long duration = replayDurationMs;
+        if (duration >= 0) {
+            g.setFont(statsFont);
+            g.setColor(Color.WHITE);
+            g.drawString(replayTextFor(snap.elapsedMs(), current.getSpeed(), duration), 20, h - 20);
+        }
+    }
+
+    private String replayTextFor(long elapsedMs, int speed, long durationMs) {
+        long tenths = elapsedMs / 100;
+        if (replayText == null || tenths != replayTextTenths || speed != replayTextSpeed) {
+            String speedText = (speed == BattleLoop.SPEED_MAX) ? "макс." : "×" + speed;
+            replayText = "Реплей " + speedText + "   " + formatTime(elapsedMs) + " / " + formatTime(durationMs)
+                    + "   " + REPLAY_KEYS;
+            replayTextTenths = tenths;
+            replayTextSpeed = speed;
+        }
+        return replayText;
+    }
+
+    private static String formatTime(long ms) {
+        long tenths = ms / 100;
+        long seconds = tenths / 10;
+        return (seconds / 60) + ":" + String.format("%02d", seconds % 60) + "." + (tenths % 10);
+    }
+
+    private Image backgroundFor(int w, int h) {
+        if (scaledBackground == null || scaledBackground.getWidth() != w || scaledBackground.getHeight() != h) {
+            scaledBackground = getGraphicsConfiguration().createCompatibleImage(w, h);
+            Graphics2D g = scaledBackground.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(background, 0, 0, w, h, null);
+            g.dispose();
+        }
+        return scaledBackground;
+    }
+
+    /**
+     * Шар з таблицею HP; перемальовується лише коли змінились HP або ширина.
+     */
+    private Image statsLayerFor(BattleLoop current, FrameSnapshot snap, int w) {
+        if (current == statsLoop && snap.sequence() == statsSequence
+                && statsLayer != null && statsLayer.getWidth() == w) {
+            return statsLayer;
+        }
+        statsSequence = snap.sequence();
+
+        List<FrameSnapshot.DroidView> droids = snap.droids();
+        boolean changed = statsLayer == null || statsLayer.getWidth() != w
+                || current != statsLoop || statsHealth.length != droids.size();
+        statsLoop = current;
+        if (!changed) {
+            for (int i = 0; i < droids.size(); i++) {
+                if (statsHealth[i] != droids.get(i).health()) {
+                    changed = true;
+                    break;
+                }
+            }
+        }
+        if (!changed) return statsLayer;
+
+        if (statsHealth.length != droids.size()) statsHealth = new int[droids.size()];
+        for (int i = 0; i < droids.size(); i++) {
+            statsHealth[i] = droids.get(i).health();
+        }
+        renderStats(droids, w);
+        return statsLayer;
+    }
+
+    private void renderStats(List<FrameSnapshot.DroidView> droids, int w) {
+        int leftRows = 0;
+        for (FrameSnapshot.DroidView d : droids) {
+            if (d.side() == BattleSide.LEFT) leftRows++;
+        }
+        int rows = Math.max(leftRows, droids.size() - leftRows);
+        int h = Math.max(1, STATS_TOP + rows * STATS_LINE);
+
+        if (statsLayer == null || statsLayer.getWidth() != w || statsLayer.getHeight() != h) {
+            statsLayer = getGraphicsConfiguration().createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+        }
+        if (statsFontWidth != w) {
+            statsFont = new Font("Arial", Font.PLAIN, Math.max(14, w / 60));
+            statsFontWidth = w;
+        }
+
+        Graphics2D g2d = statsLayer.createGraphics();
+        g2d.setComposite(AlphaComposite.Clear);
+        g2d.fillRect(0, 0, w, h);
+        g2d.setComposite(AlphaComposite.SrcOver);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setColor(Color.WHITE);
+        g2d.setFont(statsFont);
+
+        int leftX = 20;
+        int rightX = w - 20;
+
+        // Ліві
+        int yLeft = STATS_TOP;
+        for (FrameSnapshot.DroidView d : droids) {
+            if (d.side() != BattleSide.LEFT) continue;
+            g2d.drawString(statsLine(d), leftX, yLeft);
+            yLeft += STATS_LINE;
+        }
+
+        // Праві
+        int yRight = STATS_TOP;
+        FontMetrics fm = g2d.getFontMetrics();
+        for (FrameSnapshot.DroidView d : droids) {
+            if (d.side() != BattleSide.RIGHT) continue;
+            String txt = statsLine(d);
+            g2d.drawString(txt, rightX - fm.stringWidth(txt), yRight);
+            yRight += STATS_LINE;
+        }
+        g2d.dispose();
+    }
+
+    private static String statsLine(FrameSnapshot.DroidView d) {
+        return d.name() + " (#" + d.id() + ") " + d.model() + "  HP:" + d.health() + "/" + d.maxHealth();
+    }
+}
@@ -5,17 +5,19 @@ import game.battle.BattleMode;
 import game.battle.BattleScenario;
 import game.battle.BattleSide;
 import game.core.GameContext;
-import game.droid.Droid;
-import game.droid.DroidFactory;
+import game.droid.DroidBlueprint;
 import game.droid.DroidRepository;
 import game.droid.DroidType;
+import game.storage.AsyncBattleLogWriter;
 import game.storage.BattleLog;
 import game.storage.BattleLogIO;
 import game.storage.DroidEntry;
 
 import java.awt.Dimension;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletionException;
 
 /**
  * Мінімальне консольне меню (якщо потрібно для вимоги ЛР).
@@ -90,7 +92,7 @@ public class ConsoleMenu {
             return;
         }
 
-        Droid d = repo.createAndAdd(type, name);
+        DroidBlueprint d = repo.createAndAdd(type, name);
         System.out.println("Створено: Id=" + d.getId() + ", Name=" + d.getName() + ", Type=" + d.getModel());
     }
 
@@ -109,16 +111,17 @@ public class ConsoleMenu {
         }
         listDroids();
 
-        Droid a = askDroidById(sc, "Введіть id першого бійця: ", Set.of());
+        DroidBlueprint a = askDroidById(sc, "Введіть id першого бійця: ", Set.of());
         if (a == null) return;
 
-        Droid b = askDroidById(sc, "Введіть id супротивника: ", Set.of(a.getId()));
+        DroidBlueprint b = askDroidById(sc, "Введіть id супротивника: ", Set.of(a.getId()));
         if (b == null) return;
 
         BattleScenario scenario = new BattleScenario(BattleMode.ONE_VS_ONE, java.util.List.of(a), java.util.List.of(b));
         BattleEngine engine = new BattleEngine(scenario, new Dimension(1000, 700));
+        AsyncBattleLogWriter recorder = startRecording(engine);
         runEngineToFinish(engine);
-        afterBattleSavePrompt(sc, engine);
+        afterBattleSavePrompt(sc, engine, recorder);
     }
 
     private void fightTeamVsTeam(Scanner sc) {
@@ -139,18 +142,18 @@ public class ConsoleMenu {
 
         listDroids();
 
-        List<Droid> teamA = new ArrayList<>();
-        List<Droid> teamB = new ArrayList<>();
+        List<DroidBlueprint> teamA = new ArrayList<>();
+        List<DroidBlueprint> teamB = new ArrayList<>();
         Set<Integer> used = new HashSet<>();
 
         for (int i = 0; i < sizeA; i++) {
-            Droid d = askDroidById(sc, "Команда 1: id (" + (i + 1) + "/" + sizeA + "): ", used);
+            DroidBlueprint d = askDroidById(sc, "Команда 1: id (" + (i + 1) + "/" + sizeA + "): ", used);
             if (d == null) return;
             used.add(d.getId());
             teamA.add(d);
         }
         for (int i = 0; i < sizeB; i++) {
-            Droid d = askDroidById(sc, "Команда 2: id (" + (i + 1) + "/" + sizeB + "): ", used);
+            DroidBlueprint d = askDroidById(sc, "Команда 2: id (" + (i + 1) + "/" + sizeB + "): ", used);
             if (d == null) return;
             used.add(d.getId());
             teamB.add(d);
@@ -158,8 +161,9 @@ public class ConsoleMenu {
 
         BattleScenario scenario = new BattleScenario(BattleMode.TEAM_VS_TEAM, teamA, teamB);
         BattleEngine engine = new BattleEngine(scenario, new Dimension(1000, 700));
+        AsyncBattleLogWriter recorder = startRecording(engine);
         runEngineToFinish(engine);
-        afterBattleSavePrompt(sc, engine);
+        afterBattleSavePrompt(sc, engine, recorder);
     }
 
     private void replay(Scanner sc) {
@@ -170,10 +174,10 @@ public class ConsoleMenu {
         try {
             BattleLog log = BattleLogIO.read(path);
 
-            List<Droid> left = new ArrayList<>();
-            List<Droid> right = new ArrayList<>();
+            List<DroidBlueprint> left = new ArrayList<>();
+            List<DroidBlueprint> right = new ArrayList<>();
             for (DroidEntry e : log.getParticipants()) {
-                Droid d = DroidFactory.create(e.getType(), e.getId(), e.getName(), 0, 0);
+                DroidBlueprint d = new DroidBlueprint(e.getId(), e.getType(), e.getName());
                 if (e.getSide() == BattleSide.LEFT) left.add(d);
                 else right.add(d);
             }
@@ -187,7 +191,7 @@ public class ConsoleMenu {
         }
     }
 
-    private Droid askDroidById(Scanner sc, String prompt, Set<Integer> excluded) {
+    private DroidBlueprint askDroidById(Scanner sc, String prompt, Set<Integer> excluded) {
         while (true) {
             System.out.print(prompt);
             String s = sc.nextLine().trim();
@@ -206,7 +210,7 @@ public class ConsoleMenu {
                 continue;
             }
 
-            Droid d = repo.findById(id);
+            DroidBlueprint d = repo.findById(id);
             if (d == null) {
                 System.out.println("Дроїда не знайдено.");
                 continue;
@@ -235,23 +239,49 @@ public class ConsoleMenu {
         }
     }
 
+    private String askSavePath(Scanner sc) {
+        System.out.print("Шлях для збереження: ");
+        return sc.nextLine().trim();
+    }
+
     private void runEngineToFinish(BattleEngine engine) {
-        long step = 50;
-        while (!engine.isFinished()) {
-            engine.update(step);
-        }
+        // без вікна — стрибаємо від події до події
+        engine.runToFinish();
         System.out.println("\n=== Результат ===");
         System.out.println("Переміг: " + engine.getResult().getWinnerSide());
     }
 
-    private void afterBattleSavePrompt(Scanner sc, BattleEngine engine) {
+    /**
+     * Фоновий запис бою, поки він триває; null — якщо тимчасовий файл створити не вдалося.
+     */
+    private AsyncBattleLogWriter startRecording(BattleEngine engine) {
+        try {
+            return AsyncBattleLogWriter.attach(engine.getBattleLog());
+        } catch (IOException e) {
+            System.out.println("Фоновий запис бою недоступний: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void afterBattleSavePrompt(Scanner sc, BattleEngine engine, AsyncBattleLogWriter recorder) {
         System.out.print("Зберегти бій у файл? (y/n): ");
         String ans = sc.nextLine().trim();
-        if (!ans.equalsIgnoreCase("y")) return;
+        String path = ans.equalsIgnoreCase("y") ? askSavePath(sc) : "";
+        if (path.isEmpty()) {
+            if (recorder != null) recorder.discard();
+            return;
+        }
 
-        System.out.print("Шлях для збереження: ");
-        String path = sc.nextLine().trim();
-        if (path.isEmpty()) return;
+        if (recorder != null) {
+            try {
+                recorder.commit(Path.of(path)).join();
+                System.out.println("Збережено у: " + path);
+            } catch (CompletionException e) {
+                Throwable cause = (e.getCause() != null) ? e.getCause() : e;
+                System.out.println("Помилка запису: " + cause.getMessage());
+            }
+            return;
+        }
 
         try {
             BattleLogIO.write(engine.getBattleLog(), path);
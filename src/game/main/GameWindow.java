@@ -1,15 +1,17 @@
 package game.main;
 
 import game.battle.BattleEngine;
-import game.battle.BattleParticipant;
+import game.battle.BattleLoop;
 import game.battle.BattleSide;
-import game.battle.LaserProjectile;
+import game.battle.FrameSnapshot;
 import game.core.GameContext;
+import game.storage.AsyncBattleLogWriter;
 import game.storage.BattleLogIO;
 import game.util.Assets;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.IOException;
+import java.nio.file.Path;
 import javax.swing.*;
 
 public class GameWindow extends JFrame {
@@ -390,91 +392,157 @@ public class GameWindow extends JFrame {
         private final Image background;
 
         private BattleEngine engine;
-        private Timer loopTimer;
-        private long lastTickNs;
+        // Симуляція йде у власному потоці; UI лише малює останній знімок
+        private BattleLoop loop;
+        // Активне відмалювання у власному потоці (BufferStrategy)
+        private final BattleCanvas canvas;
 
         private int selectedAttackerId = -1;
-        private String overlayMessage;
         private Timer overlayTimer;
+        // Фоновий запис бою у тимчасовий файл; при збереженні лише переноситься на місце
+        private AsyncBattleLogWriter recorder;
 
         private static final String GAME_IMG_BASE = "src/game/ui/sprites/";
+        private static final long REPLAY_SEEK_MS = 10_000;
 
         public GamePanel(GameWindow window) {
             this.window = window;
             this.background = Assets.loadImage(GAME_IMG_BASE + "game_background.png");
             setFocusable(true);
 
-            addMouseListener(new MouseAdapter() {
+            setLayout(new BorderLayout());
+            canvas = new BattleCanvas(background);
+            add(canvas, BorderLayout.CENTER);
+
+            canvas.addMouseListener(new MouseAdapter() {
                 @Override
                 public void mousePressed(MouseEvent e) {
+                    canvas.requestFocusInWindow();
                     handleClick(e.getX(), e.getY());
                 }
             });
+
+            // Керування реплеєм з клавіатури
+            canvas.setFocusable(true);
+            canvas.addKeyListener(new KeyAdapter() {
+                @Override
+                public void keyPressed(KeyEvent e) {
+                    handleReplayKey(e.getKeyCode());
+                }
+            });
         }
 
         public void startBattle(BattleEngine engine) {
+            stopLoop();
+            discardRecording();
             this.engine = engine;
-            this.selectedAttackerId = -1;
-            this.overlayMessage = null;
+            setSelectedAttacker(-1);
+            setOverlayMessage(null);
 
-            if (loopTimer != null) {
-                loopTimer.stop();
+            if (engine.getMode() != game.battle.BattleMode.REPLAY) {
+                try {
+                    recorder = AsyncBattleLogWriter.attach(engine.getBattleLog());
+                } catch (IOException ex) {
+                    // без фонового запису бій збережеться звичайним способом
+                    System.err.println("[GamePanel] Фоновий запис бою недоступний: " + ex.getMessage());
+                }
             }
 
-            lastTickNs = System.nanoTime();
-            loopTimer = new Timer(16, e -> {
-                try {
-                    long now = System.nanoTime();
-                    long deltaMs = (now - lastTickNs) / 1_000_000L;
-                    lastTickNs = now;
-                    if (deltaMs > 80) deltaMs = 80; // ?????? ??? ?????
+            loop = new BattleLoop(engine,
+                    () -> SwingUtilities.invokeLater(this::onBattleFinished),
+                    ex -> SwingUtilities.invokeLater(() -> onBattleError(ex)));
 
-                    if (engine != null) {
-                        engine.update(deltaMs);
-                    }
+            boolean replay = engine.getMode() == game.battle.BattleMode.REPLAY;
+            canvas.setReplayDurationMs(replay ? engine.getReplayDurationMs() : -1);
+            canvas.setLoop(loop);
+            canvas.startRendering();
+            loop.start();
+            if (replay) canvas.requestFocusInWindow();
+        }
 
-                    repaint();
+        private void stopLoop() {
+            if (loop != null) loop.stop();
+        }
 
-                    if (engine != null && engine.isFinished()) {
-                        loopTimer.stop();
-                        onBattleFinished();
-                    }
-                } catch (Exception ex) {
-                    ex.printStackTrace();
-                    if (loopTimer != null) loopTimer.stop();
-                    String msg = ex.getMessage() != null ? ex.getMessage() : "???????? ???????";
-                    showOverlay("??????? ? ???: " + msg, 2000, window::switchToMenu);
-                }
-            });
-            loopTimer.start();
+        private void discardRecording() {
+            if (recorder != null) {
+                recorder.discard();
+                recorder = null;
+            }
         }
 
-        private void handleClick(int x, int y) {
-            if (engine == null) return;
-            if (engine.isFinished()) return;
+        private void setSelectedAttacker(int id) {
+            selectedAttackerId = id;
+            canvas.setSelectedAttackerId(id);
+        }
 
+        private void setOverlayMessage(String text) {
+            canvas.setOverlayMessage(text);
+        }
+
+        private void onBattleError(Throwable ex) {
+            ex.printStackTrace();
+            stopLoop();
+            discardRecording();
+            String msg = ex.getMessage() != null ? ex.getMessage() : "Невідома помилка";
+            showOverlay("Помилка в бою: " + msg, 2000, window::switchToMenu);
+        }
+
+        private void handleClick(int x, int y) {
+            if (engine == null || loop == null) return;
             // Ручне управління тільки у team-vs-team
             if (engine.getMode() != game.battle.BattleMode.TEAM_VS_TEAM) return;
 
-            // Знаходимо, чи клікнули по дроїду
-            BattleParticipant clicked = null;
-            for (BattleParticipant p : engine.getParticipants()) {
-                if (p.getDroid().getBounds().contains(x, y)) {
-                    clicked = p;
-                    break;
+            // Знаходимо, чи клікнули по дроїду (за знімком — живі обʼєкти належать потоку симуляції);
+            // знімок перевикористовується, тож потрібне копіюємо до release()
+            int clickedId = -1;
+            BattleSide clickedSide = null;
+            FrameSnapshot snap = loop.acquire();
+            try {
+                if (snap.finished()) return;
+                for (FrameSnapshot.DroidView d : snap.droids()) {
+                    if (d.contains(x, y)) {
+                        if (d.alive()) {
+                            clickedId = d.id();
+                            clickedSide = d.side();
+                        }
+                        break;
+                    }
                 }
+            } finally {
+                loop.release(snap);
             }
-            if (clicked == null) return;
+            if (clickedSide == null) return;
 
             // якщо клік по своєму (LEFT) — вибираємо attacker
-            if (clicked.getSide() == BattleSide.LEFT && clicked.getDroid().isAlive()) {
-                selectedAttackerId = clicked.getDroid().getId();
+            if (clickedSide == BattleSide.LEFT) {
+                setSelectedAttacker(clickedId);
                 return;
             }
 
             // якщо клік по ворогу (RIGHT) і attacker вже обраний — назначаємо ціль
-            if (clicked.getSide() == BattleSide.RIGHT && clicked.getDroid().isAlive() && selectedAttackerId != -1) {
-                engine.setManualTarget(selectedAttackerId, clicked.getDroid().getId());
+            if (clickedSide == BattleSide.RIGHT && selectedAttackerId != -1) {
+                int attackerId = selectedAttackerId;
+                int targetId = clickedId;
+                loop.submit(e -> e.setManualTarget(attackerId, targetId));
+            }
+        }
+
+        private void handleReplayKey(int keyCode) {
+            if (engine == null || loop == null) return;
+            if (engine.getMode() != game.battle.BattleMode.REPLAY) return;
+
+            switch (keyCode) {
+                case KeyEvent.VK_1 -> loop.setSpeed(1);
+                case KeyEvent.VK_2 -> loop.setSpeed(2);
+                case KeyEvent.VK_8 -> loop.setSpeed(8);
+                case KeyEvent.VK_M -> loop.setSpeed(BattleLoop.SPEED_MAX);
+                case KeyEvent.VK_LEFT -> loop.seekBy(-REPLAY_SEEK_MS);
+                case KeyEvent.VK_RIGHT -> loop.seekBy(REPLAY_SEEK_MS);
+                case KeyEvent.VK_HOME -> loop.seek(0);
+                default -> {
+                    // інші клавіші ігноруємо
+                }
             }
         }
 
@@ -498,28 +566,17 @@ public class GameWindow extends JFrame {
             showOverlay(winnerText, 1500, () -> {
                 // Після показу переможця — запит на збереження
                 maybeSaveBattle();
-                // Повертаємо HP/energy, щоб список дроїдів не залишався «побитим»
-                resetDroidsAfterBattle();
                 window.switchToMenu();
             });
         }
 
-        private void resetDroidsAfterBattle() {
-            if (engine == null) return;
-            for (BattleParticipant p : engine.getParticipants()) {
-                p.getDroid().resetForBattle();
-            }
-        }
-
         private void showOverlay(String text, int millis, Runnable after) {
-            this.overlayMessage = text;
-            repaint();
+            setOverlayMessage(text);
 
             if (overlayTimer != null) overlayTimer.stop();
 
             overlayTimer = new Timer(millis, e -> {
-                overlayMessage = null;
-                repaint();
+                setOverlayMessage(null);
                 if (after != null) after.run();
             });
             overlayTimer.setRepeats(false);
@@ -536,10 +593,31 @@ public class GameWindow extends JFrame {
                     "Save battle",
                     JOptionPane.YES_NO_OPTION
             );
-            if (res != JOptionPane.YES_OPTION) return;
+            if (res != JOptionPane.YES_OPTION) {
+                discardRecording();
+                return;
+            }
 
             String path = JOptionPane.showInputDialog(window, "Введіть шлях до файлу (наприклад C:/tmp/battle.txt):");
-            if (path == null || path.trim().isEmpty()) return;
+            if (path == null || path.trim().isEmpty()) {
+                discardRecording();
+                return;
+            }
+
+            if (recorder != null) {
+                // бій уже на диску — дописуємо хвіст і переносимо файл у фоні, не блокуючи EDT
+                String target = path.trim();
+                recorder.commit(Path.of(target)).whenComplete((saved, err) -> SwingUtilities.invokeLater(() -> {
+                    if (err == null) {
+                        JOptionPane.showMessageDialog(window, "Бій збережено: " + target);
+                    } else {
+                        Throwable cause = (err.getCause() != null) ? err.getCause() : err;
+                        JOptionPane.showMessageDialog(window, "Помилка збереження: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }));
+                recorder = null;
+                return;
+            }
 
             try {
                 BattleLogIO.write(engine.getBattleLog(), path.trim());
@@ -548,85 +626,5 @@ public class GameWindow extends JFrame {
                 JOptionPane.showMessageDialog(window, "Помилка збереження: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             }
         }
-
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            g.drawImage(background, 0, 0, getWidth(), getHeight(), this);
-
-            if (engine == null) return;
-
-            // Снаряди
-            for (LaserProjectile p : engine.getProjectiles()) {
-                p.draw(g);
-            }
-
-            // Дроїди
-            for (BattleParticipant p : engine.getParticipants()) {
-                boolean mirror = (p.getSide() == BattleSide.RIGHT);
-                Boolean override = p.getDroid().getMirrorOverride();
-                if (override != null) mirror = override;
-                p.getDroid().draw(g, mirror);
-
-                // обводка для selected attacker
-                if (p.getSide() == BattleSide.LEFT && p.getDroid().getId() == selectedAttackerId) {
-                    Rectangle r = p.getDroid().getBounds();
-                    Graphics2D g2d = (Graphics2D) g;
-                    g2d.setColor(new Color(0, 255, 255, 180));
-                    g2d.setStroke(new BasicStroke(3));
-                    g2d.drawRoundRect(r.x - 4, r.y - 4, r.width + 8, r.height + 8, 12, 12);
-                }
-            }
-
-            // Характеристики зверху
-            drawStatsOverlay(g);
-
-            // Повідомлення посередині (переможець)
-            if (overlayMessage != null) {
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setFont(new Font("Arial", Font.BOLD, Math.max(22, getWidth() / 30)));
-                g2d.setColor(Color.WHITE);
-                FontMetrics fm = g2d.getFontMetrics();
-                int w = fm.stringWidth(overlayMessage);
-                int x = (getWidth() - w) / 2;
-                int y = (int) (getHeight() * 0.18);
-                g2d.drawString(overlayMessage, x, y);
-            }
-        }
-
-        private void drawStatsOverlay(Graphics g) {
-            Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-            g2d.setColor(Color.WHITE);
-            g2d.setFont(new Font("Arial", Font.PLAIN, Math.max(14, getWidth() / 60)));
-
-            int leftX = 20;
-            int rightX = getWidth() - 20;
-            int y = 30;
-            int line = 18;
-
-            // Ліві
-            int yLeft = y;
-            for (BattleParticipant p : engine.getParticipants()) {
-                if (p.getSide() != BattleSide.LEFT) continue;
-                var d = p.getDroid();
-                String txt = d.getName() + " (#" + d.getId() + ") " + d.getModel() + "  HP:" + d.getHealth() + "/" + d.getMaxHealth();
-                g2d.drawString(txt, leftX, yLeft);
-                yLeft += line;
-            }
-
-            // Праві
-            int yRight = y;
-            for (BattleParticipant p : engine.getParticipants()) {
-                if (p.getSide() != BattleSide.RIGHT) continue;
-                var d = p.getDroid();
-                String txt = d.getName() + " (#" + d.getId() + ") " + d.getModel() + "  HP:" + d.getHealth() + "/" + d.getMaxHealth();
-                int w = g2d.getFontMetrics().stringWidth(txt);
-                g2d.drawString(txt, rightX - w, yRight);
-                yRight += line;
-            }
-        }
     }
 }
-
-
@@ -0,0 +1,149 @@
+package game.main;
+
+import game.storage.BattleIndex;
+import game.storage.BattleIndexer;
+import game.storage.BattleQuery;
+import game.storage.BattleSummary;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Індекс збережених боїв і запити до нього (без вікна).
+ *
+ * Побудова/оновлення: java game.main.Main index battles/ [battles/battles.dbix]
+ * Запит: java game.main.Main query battles/battles.dbix droid=Phantom max.PHANTOM_STRIKE>60 --avg first.DROID_DEFEATED
+ */
+public class IndexCli {
+    private static final String DEFAULT_INDEX_NAME = "battles" + BattleIndex.EXTENSION;
+    private static final int DEFAULT_LIMIT = 20;
+
+    public void runIndex(String[] args) {
+        if (args.length < 2) {
+            printUsage();
+            return;
+        }
+        Path dir = Path.of(args[1]);
+        Path indexPath = (args.length > 2) ? Path.of(args[2]) : dir.resolve(DEFAULT_INDEX_NAME);
+
+        BattleIndex previous = null;
+        if (Files.exists(indexPath)) {
+            try {
+                previous = BattleIndex.load(indexPath);
+            } catch (IOException e) {
+                System.out.println("Попередній індекс не прочитано, будуємо заново: " + e.getMessage());
+            }
+        }
+
+        long startNs = System.nanoTime();
+        try (BattleIndexer indexer = new BattleIndexer()) {
+            BattleIndex index = indexer.build(dir, previous);
+            index.save(indexPath);
+            long ms = (System.nanoTime() - startNs) / 1_000_000L;
+
+            System.out.println("Проіндексовано боїв: " + index.size()
+                    + " (без змін: " + indexer.getReusedCount() + "), " + ms + " мс");
+            List<String> failures = indexer.getFailures();
+            if (!failures.isEmpty()) {
+                System.out.println("Пропущено файлів: " + failures.size());
+                for (String f : failures) {
+                    System.out.println("  " + f);
+                }
+            }
+            System.out.println("Індекс: " + indexPath);
+        } catch (IOException e) {
+            System.out.println("Помилка індексації: " + e.getMessage());
+        }
+    }
+
+    public void runQuery(String[] args) {
+        if (args.length < 2) {
+            printUsage();
+            return;
+        }
+
+        List<String> conditions = new ArrayList<>();
+        List<String> averages = new ArrayList<>();
+        int limit = DEFAULT_LIMIT;
+        BattleQuery query;
+        List<ToLongFunction<BattleSummary>> avgFields = new ArrayList<>();
+        try {
+            for (int i = 2; i < args.length; i++) {
+                String a = args[i].trim();
+                if (a.equals("--avg") && i + 1 < args.length) {
+                    averages.add(args[++i].trim());
+                } else if (a.equals("--limit") && i + 1 < args.length) {
+                    limit = Math.max(0, Integer.parseInt(args[++i].trim()));
+                } else if (!a.isEmpty()) {
+                    conditions.add(a);
+                }
+            }
+            query = BattleQuery.parse(conditions);
+            for (String f : averages) {
+                avgFields.add(BattleQuery.numericField(f));
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("Некоректний запит: " + e.getMessage());
+            printUsage();
+            return;
+        }
+
+        BattleIndex index;
+        try {
+            index = BattleIndex.load(Path.of(args[1]));
+        } catch (IOException e) {
+            System.out.println("Помилка читання індексу: " + e.getMessage());
+            return;
+        }
+
+        long startNs = System.nanoTime();
+        List<BattleSummary> found = query.run(index);
+        long[] sums = new long[avgFields.size()];
+        int[] counts = new int[avgFields.size()];
+        for (BattleSummary s : found) {
+            for (int k = 0; k < avgFields.size(); k++) {
+                long v = avgFields.get(k).applyAsLong(s);
+                // first.* = -1 — події у бою не було, у середнє не йде
+                if (v < 0) continue;
+                sums[k] += v;
+                counts[k]++;
+            }
+        }
+        double queryMs = (System.nanoTime() - startNs) / 1_000_000.0;
+
+        for (int i = 0; i < found.size() && i < limit; i++) {
+            System.out.println(describe(index, found.get(i)));
+        }
+        if (found.size() > limit) {
+            System.out.println("... ще " + (found.size() - limit));
+        }
+        System.out.println("Знайдено: " + found.size() + " з " + index.size()
+                + String.format(" (запит: %.2f мс)", queryMs));
+        for (int k = 0; k < averages.size(); k++) {
+            if (counts[k] == 0) {
+                System.out.println("Середнє " + averages.get(k) + ": немає даних");
+            } else {
+                System.out.println(String.format("Середнє %s: %.1f (боїв: %d)",
+                        averages.get(k), (double) sums[k] / counts[k], counts[k]));
+            }
+        }
+    }
+
+    private static String describe(BattleIndex index, BattleSummary s) {
+        String winner = (s.getWinner() == null) ? "—" : s.getWinner().name();
+        return index.getRoot().resolve(s.getPath()) + "  " + s.getMode()
+                + ", учасників: " + s.getParticipants().size()
+                + ", " + s.getDurationMs() + " мс, переможець: " + winner;
+    }
+
+    private static void printUsage() {
+        System.out.println("Використання: index <тека з боями> [файл індексу]");
+        System.out.println("              query <файл індексу> [умова...] [--avg поле]... [--limit N]");
+        System.out.println("Умови: mode=TEAM_VS_TEAM, winner=LEFT, droid=Phantom, duration>20000,");
+        System.out.println("       count.LASER_HIT>=10, max.PHANTOM_STRIKE>60, first.DROID_DEFEATED<5000, dealt.Crusher>300");
+    }
+}
@@ -4,11 +4,12 @@ import game.battle.BattleEngine;
 import game.battle.BattleMode;
 import game.battle.BattleScenario;
 import game.core.GameContext;
-import game.droid.Droid;
-import game.droid.DroidFactory;
+import game.droid.DroidBlueprint;
 import game.droid.DroidRepository;
 import game.droid.DroidType;
 import game.storage.BattleLog;
+import game.storage.BattleLogConverter;
+import game.storage.BattleLogFormat;
 import game.storage.BattleLogIO;
 import game.storage.DroidEntry;
 import game.ui.CreateDroidDialog;
@@ -17,6 +18,7 @@ import game.ui.DroidSelection;
 
 import javax.swing.*;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
 public class Main {
@@ -30,6 +32,34 @@ public class Main {
             return;
         }
 
+        // Пакетна симуляція без вікна:
+        // java game.main.Main sim Crusher,Scoutling Phantom,Medicor 1000 [seed]
+        if (args != null && args.length > 0 && "sim".equalsIgnoreCase(args[0])) {
+            System.setProperty("java.awt.headless", "true");
+            new SimulationCli().run(args);
+            return;
+        }
+
+        // Конвертація логу бою між текстовим і бінарним (.dblg) форматами:
+        // java game.main.Main convert battle.txt battle.dblg [--gzip]
+        // (--gzip або .gz у кінці імені — стиснений файл: battle.dblg.gz)
+        if (args != null && args.length > 0 && "convert".equalsIgnoreCase(args[0])) {
+            convertLog(args);
+            return;
+        }
+
+        // Індекс збережених боїв і запити до нього:
+        // java game.main.Main index battles/
+        // java game.main.Main query battles/battles.dbix droid=Phantom max.PHANTOM_STRIKE>60
+        if (args != null && args.length > 0 && "index".equalsIgnoreCase(args[0])) {
+            new IndexCli().runIndex(args);
+            return;
+        }
+        if (args != null && args.length > 0 && "query".equalsIgnoreCase(args[0])) {
+            new IndexCli().runQuery(args);
+            return;
+        }
+
         SwingUtilities.invokeLater(() -> {
             GameWindow window = new GameWindow(ctx);
             bindMenuListeners(window, ctx);
@@ -37,6 +67,25 @@ public class Main {
         });
     }
 
+    private static void convertLog(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Використання: convert <звідки> <куди> [--gzip]");
+            return;
+        }
+        Path target = Path.of(args[2]);
+        for (int i = 3; i < args.length; i++) {
+            if ("--gzip".equalsIgnoreCase(args[i].trim())) {
+                target = BattleLogFormat.withCompression(target);
+            }
+        }
+        try {
+            BattleLogConverter.convert(Path.of(args[1]), target);
+            System.out.println("Збережено у: " + target);
+        } catch (IOException e) {
+            System.out.println("Помилка конвертації: " + e.getMessage());
+        }
+    }
+
     private static void bindMenuListeners(GameWindow window, GameContext ctx) {
         GameWindow.MenuPanel menu = window.getMenuPanel();
         DroidRepository repo = ctx.getDroidRepository();
@@ -59,7 +108,7 @@ public class Main {
             CreateDroidDialog.Result r = CreateDroidDialog.show(window);
             if (r == null) return;
 
-            Droid created = repo.createAndAdd(r.type, r.name);
+            DroidBlueprint created = repo.createAndAdd(r.type, r.name);
             JOptionPane.showMessageDialog(window,
                     "Дроїда створено!\n\n" +
                             "Id: " + created.getId() + "\n" +
@@ -100,12 +149,12 @@ public class Main {
                 return;
             }
 
-            Droid first = DroidSelection.selectById(window, repo, "Введіть id першого бійця:", Collections.emptySet());
+            DroidBlueprint first = DroidSelection.selectById(window, repo, "Введіть id першого бійця:", Collections.emptySet());
             if (first == null) return;
 
             Set<Integer> excluded = new HashSet<>();
             excluded.add(first.getId());
-            Droid second = DroidSelection.selectById(window, repo, "Введіть id супротивника:", excluded);
+            DroidBlueprint second = DroidSelection.selectById(window, repo, "Введіть id супротивника:", excluded);
             if (second == null) return;
 
             startOneVsOne(window, first, second);
@@ -127,7 +176,7 @@ public class Main {
 
     // -------- Battle starters --------
 
-    private static void startOneVsOne(GameWindow window, Droid left, Droid right) {
+    private static void startOneVsOne(GameWindow window, DroidBlueprint left, DroidBlueprint right) {
         window.switchToGame();
         SwingUtilities.invokeLater(() -> {
             var gp = window.getGamePanel();
@@ -162,20 +211,20 @@ public class Main {
         }
 
         // Вибір дроїдів по id
-        List<Droid> teamA = new ArrayList<>();
-        List<Droid> teamB = new ArrayList<>();
+        List<DroidBlueprint> teamA = new ArrayList<>();
+        List<DroidBlueprint> teamB = new ArrayList<>();
 
         Set<Integer> used = new HashSet<>();
 
         for (int i = 0; i < sizeA; i++) {
-            Droid d = DroidSelection.selectById(window, repo, "Команда 1: введіть id (" + (i + 1) + "/" + sizeA + "):", used);
+            DroidBlueprint d = DroidSelection.selectById(window, repo, "Команда 1: введіть id (" + (i + 1) + "/" + sizeA + "):", used);
             if (d == null) return;
             used.add(d.getId());
             teamA.add(d);
         }
 
         for (int i = 0; i < sizeB; i++) {
-            Droid d = DroidSelection.selectById(window, repo, "Команда 2: введіть id (" + (i + 1) + "/" + sizeB + "):", used);
+            DroidBlueprint d = DroidSelection.selectById(window, repo, "Команда 2: введіть id (" + (i + 1) + "/" + sizeB + "):", used);
             if (d == null) return;
             used.add(d.getId());
             teamB.add(d);
@@ -217,13 +266,13 @@ public class Main {
     }
 
     private static void startReplay(GameWindow window, BattleLog log) {
-        // Створюємо дроїдів з файлу (окремі обʼєкти, щоб не конфліктувати з repo)
-        List<Droid> left = new ArrayList<>();
-        List<Droid> right = new ArrayList<>();
+        // Описи дроїдів з файлу (самих дроїдів створить BattleEngine)
+        List<DroidBlueprint> left = new ArrayList<>();
+        List<DroidBlueprint> right = new ArrayList<>();
 
         for (DroidEntry e : log.getParticipants()) {
             DroidType type = e.getType();
-            Droid d = DroidFactory.create(type, e.getId(), e.getName(), 0, 0);
+            DroidBlueprint d = new DroidBlueprint(e.getId(), type, e.getName());
             if (e.getSide() == game.battle.BattleSide.LEFT) left.add(d);
             else right.add(d);
         }
@@ -0,0 +1,74 @@
+package game.main;
+
+import game.battle.sim.BatchSimulator;
+import game.battle.sim.SimulationReport;
+import game.battle.sim.SimulationSpec;
+import game.droid.DroidType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Консольний режим пакетної симуляції боїв (без вікна).
+ *
+ * Запуск: java game.main.Main sim CRUSHER,SCOUTLING PHANTOM,MEDICOR 1000 [seed]
+ * Масовий бій: java game.main.Main sim Crusher*150,Medicor*50 Scoutling*200 10
+ */
+public class SimulationCli {
+
+    public void run(String[] args) {
+        if (args.length < 4) {
+            printUsage();
+            return;
+        }
+
+        SimulationSpec spec;
+        try {
+            List<DroidType> left = parseTeam(args[1]);
+            List<DroidType> right = parseTeam(args[2]);
+            int battles = Integer.parseInt(args[3].trim());
+            long seed = (args.length > 4) ? Long.parseLong(args[4].trim()) : System.nanoTime();
+            spec = new SimulationSpec(left, right, battles, seed);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Некоректні параметри: " + e.getMessage());
+            printUsage();
+            return;
+        }
+
+        System.out.println("Симуляція: " + spec.describe() + ", боїв: " + spec.getBattles() + ", seed: " + spec.getSeed());
+        try (BatchSimulator simulator = new BatchSimulator()) {
+            SimulationReport report = simulator.run(spec);
+            System.out.println(report.format());
+        }
+    }
+
+    private static List<DroidType> parseTeam(String s) {
+        List<DroidType> team = new ArrayList<>();
+        for (String part : s.split(",")) {
+            String name = part.trim();
+            if (name.isEmpty()) continue;
+
+            // ТИП*N — N дроїдів одного типу
+            int count = 1;
+            int star = name.indexOf('*');
+            if (star >= 0) {
+                count = Integer.parseInt(name.substring(star + 1).trim());
+                if (count <= 0) throw new IllegalArgumentException("Кількість має бути додатною: " + name);
+                name = name.substring(0, star).trim();
+            }
+
+            DroidType t = DroidType.fromDisplayName(name);
+            if (t == null) throw new IllegalArgumentException("Невідомий тип дроїда: " + name);
+            for (int i = 0; i < count; i++) {
+                team.add(t);
+            }
+        }
+        return team;
+    }
+
+    private static void printUsage() {
+        System.out.println("Використання: sim <ліва команда> <права команда> <кількість боїв> [seed]");
+        System.out.println("Команда — типи через кому, напр.: Crusher,Scoutling");
+        System.out.println("Кілька однакових: Тип*N, напр.: Crusher*100,Medicor*20");
+    }
+}
@@ -0,0 +1,390 @@
+package game.storage;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фоновий запис бою у файл просто під час бою.
+ *
+ * Потік симуляції кодує події у бінарний формат блоками по 16 КБ і віддає
+ * блоки через обмежену чергу потоку запису, а той пише їх пачками через FileChannel.
+ * Якщо диск не встигає, потік симуляції чекає на вільний блок.
+ *
+ * Файл пишеться під тимчасовою назвою (*.part). commit() переносить його на місце
+ * атомарним перейменуванням, а для текстової цілі (.txt) спершу конвертує.
+ * Якщо програма впаде посеред бою, .part лишається придатним для реплею —
+ * обірваний хвіст читач пропускає.
+ */
+public class AsyncBattleLogWriter implements BattleLogListener {
+
+    /**
+     * Коли скидати дані на диск (fsync).
+     */
+    public enum FsyncPolicy {
+        // покладатися на ОС
+        NONE,
+        // один раз перед перейменуванням
+        ON_FINISH,
+        // періодично під час бою і перед перейменуванням
+        INTERVAL
+    }
+
+    public static final Path DEFAULT_SPOOL_DIR = Path.of("battles", "unsaved");
+    public static final String PART_EXTENSION = ".part";
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+    private static final int CHUNKS = 8;
+    // Неповний блок віддається на запис з першою подією, що прийшла після цього часу
+    private static final long HANDOFF_NS = 100_000_000L;
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private final BattleLog log;
+    private final Path partFile;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalMs;
+    private final FileChannel channel;
+
+    private final ArrayBlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(CHUNKS);
+    // + місце під END, навіть коли всі блоки вже в черзі
+    private final ArrayBlockingQueue<ByteBuffer> filled = new ArrayBlockingQueue<>(CHUNKS + 1);
+
+    // -------- Сторона потоку симуляції (під монітором обʼєкта) --------
+    private final ChunkStream stream = new ChunkStream();
+    private final BinaryBattleLogWriter encoder;
+    private boolean stopped;
+
+    // -------- Потік запису --------
+    private final Thread thread;
+    private volatile IOException error;
+    private volatile Path commitTarget;
+    private final CompletableFuture<Path> done = new CompletableFuture<>();
+
+    private AsyncBattleLogWriter(BattleLog log, Path partFile, FsyncPolicy fsyncPolicy, long fsyncIntervalMs) throws IOException {
+        this.log = log;
+        this.partFile = partFile;
+        this.fsyncPolicy = (fsyncPolicy != null) ? fsyncPolicy : FsyncPolicy.ON_FINISH;
+        this.fsyncIntervalMs = Math.max(1, fsyncIntervalMs);
+
+        Path parent = partFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        for (int i = 0; i < CHUNKS; i++) {
+            free.add(ByteBuffer.allocate(CHUNK_SIZE));
+        }
+        this.channel = FileChannel.open(partFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        this.thread = new Thread(this::writeLoop, "battle-log-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+
+        this.encoder = new BinaryBattleLogWriter(stream, log.getMode(), log.getCreatedAt(), log.getParticipants());
+    }
+
+    /**
+     * Починає запис логу, який ще наповнюється: спершу вже наявні події, далі — нові.
+     * Викликати до того, як події почнуть надходити з іншого потоку.
+     */
+    public static AsyncBattleLogWriter attach(BattleLog log, Path partFile, FsyncPolicy fsyncPolicy,
+                                              long fsyncIntervalMs) throws IOException {
+        if (log == null) throw new IllegalArgumentException("log is null");
+        if (partFile == null) throw new IllegalArgumentException("path is null");
+        AsyncBattleLogWriter w = new AsyncBattleLogWriter(log, partFile, fsyncPolicy, fsyncIntervalMs);
+        try {
+            w.encoder.appendAll(log);
+        } catch (IOException e) {
+            w.discard();
+            throw e;
+        }
+        log.addListener(w);
+        return w;
+    }
+
+    /**
+     * Запис у DEFAULT_SPOOL_DIR з fsync перед перейменуванням.
+     */
+    public static AsyncBattleLogWriter attach(BattleLog log) throws IOException {
+        Path part = DEFAULT_SPOOL_DIR.resolve("battle-" + log.getCreatedAt().toEpochMilli()
+                + BattleLogFormat.BINARY_EXTENSION + PART_EXTENSION);
+        return attach(log, part, FsyncPolicy.ON_FINISH, 0);
+    }
+
+    public Path getPartFile() {
+        return partFile;
+    }
+
+    // -------- Події (потік симуляції) --------
+
+    @Override
+    public synchronized void onEvent(BattleLog log, int index) {
+        if (stopped || error != null) return;
+        try {
+            encoder.append(log, index);
+            stream.handOffIfStale();
+        } catch (IOException e) {
+            // бій не зупиняємо через диск — запис просто припиняється, помилку віддасть commit()
+            fail(e);
+        }
+    }
+
+    @Override
+    public synchronized void onCheckpoint(BattleLog log, BattleCheckpoint checkpoint) {
+        if (stopped || error != null) return;
+        try {
+            encoder.append(checkpoint);
+            stream.flush();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    // -------- Завершення --------
+
+    /**
+     * Дописує решту і переносить файл у target (атомарно; .txt — через конвертацію).
+     * Не блокує: результат — шлях збереженого файлу.
+     */
+    public CompletableFuture<Path> commit(Path target) {
+        if (target == null) throw new IllegalArgumentException("path is null");
+        finish(target);
+        return done;
+    }
+
+    /**
+     * Зупиняє запис і видаляє тимчасовий файл.
+     */
+    public CompletableFuture<Path> discard() {
+        finish(null);
+        return done;
+    }
+
+    private synchronized void finish(Path target) {
+        if (stopped) return;
+        stopped = true;
+        log.removeListener(this);
+        commitTarget = target;
+        try {
+            stream.flush();
+        } catch (IOException e) {
+            fail(e);
+        }
+        putUninterruptibly(END);
+    }
+
+    private void fail(IOException e) {
+        if (error == null) error = e;
+    }
+
+    // -------- Потік запису --------
+
+    private void writeLoop() {
+        List<ByteBuffer> batch = new ArrayList<>(CHUNKS + 1);
+        long lastSyncNs = System.nanoTime();
+        boolean dirty = false;
+        boolean end = false;
+
+        while (!end) {
+            ByteBuffer first;
+            try {
+                if (fsyncPolicy == FsyncPolicy.INTERVAL && dirty) {
+                    long waitNs = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMs) - (System.nanoTime() - lastSyncNs);
+                    first = filled.poll(Math.max(0, waitNs), TimeUnit.NANOSECONDS);
+                } else {
+                    first = filled.take();
+                }
+            } catch (InterruptedException e) {
+                // потік запису ніхто не перериває; якщо все ж перервали — чекаємо далі
+                continue;
+            }
+
+            if (first != null) {
+                batch.add(first);
+                filled.drainTo(batch);
+                // END кладеться останнім, після нього блоків уже не буде
+                if (batch.get(batch.size() - 1) == END) {
+                    end = true;
+                    batch.remove(batch.size() - 1);
+                }
+                if (!batch.isEmpty()) {
+                    if (error == null) {
+                        write(batch);
+                        dirty = true;
+                    }
+                    for (ByteBuffer b : batch) {
+                        b.clear();
+                        free.offer(b);
+                    }
+                    batch.clear();
+                }
+            }
+
+            if (fsyncPolicy == FsyncPolicy.INTERVAL && dirty && error == null
+                    && System.nanoTime() - lastSyncNs >= TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMs)) {
+                try {
+                    channel.force(false);
+                } catch (IOException e) {
+                    fail(e);
+                }
+                dirty = false;
+                lastSyncNs = System.nanoTime();
+            }
+        }
+        complete();
+    }
+
+    private void write(List<ByteBuffer> batch) {
+        ByteBuffer[] buffers = batch.toArray(new ByteBuffer[0]);
+        try {
+            long left = 0;
+            for (ByteBuffer b : buffers) left += b.remaining();
+            while (left > 0) {
+                left -= channel.write(buffers);
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void complete() {
+        Path target = commitTarget;
+        try {
+            if (error != null) throw error;
+            if (target != null && fsyncPolicy != FsyncPolicy.NONE) {
+                channel.force(true);
+            }
+            channel.close();
+
+            if (target == null) {
+                Files.deleteIfExists(partFile);
+                done.complete(null);
+            } else {
+                moveInto(target);
+                done.complete(target);
+            }
+        } catch (IOException | RuntimeException e) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // файл лишається як є — з нього ще можна відтворити бій
+            }
+            done.completeExceptionally(e);
+        }
+    }
+
+    private void moveInto(Path target) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        if (BattleLogFormat.fromPath(target) == BattleLogFormat.TEXT || BattleLogFormat.isCompressedName(target)) {
+            // тимчасовий файл зберігає розширення цілі — за ним конвертер обирає формат і стиснення
+            Path tmp = target.resolveSibling(".tmp-" + target.getFileName());
+            BattleLogConverter.convert(partFile, tmp);
+            sync(tmp);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(partFile);
+            return;
+        }
+
+        try {
+            Files.move(partFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // інша файлова система: копія поруч із ціллю, а вже її — атомарно на місце
+            Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+            Files.copy(partFile, tmp, StandardCopyOption.REPLACE_EXISTING);
+            sync(tmp);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(partFile);
+        }
+    }
+
+    private void sync(Path file) throws IOException {
+        if (fsyncPolicy == FsyncPolicy.NONE) return;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ch.force(true);
+        }
+    }
+
+    private void putUninterruptibly(ByteBuffer b) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                filled.put(b);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Потік у блоки з пулу; повний (або застарілий) блок іде у чергу запису.
+     */
+    private final class ChunkStream extends OutputStream {
+        private ByteBuffer current;
+        private long startedNs;
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureChunk();
+            current.put((byte) b);
+            if (!current.hasRemaining()) handOff();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                ensureChunk();
+                int n = Math.min(len, current.remaining());
+                current.put(b, off, n);
+                off += n;
+                len -= n;
+                if (!current.hasRemaining()) handOff();
+            }
+        }
+
+        void handOffIfStale() {
+            if (current != null && current.position() > 0 && System.nanoTime() - startedNs >= HANDOFF_NS) {
+                handOff();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (current != null && current.position() > 0) handOff();
+        }
+
+        private void ensureChunk() throws IOException {
+            if (current != null) return;
+            try {
+                current = free.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Запис бою перервано");
+            }
+            startedNs = System.nanoTime();
+        }
+
+        private void handOff() {
+            current.flip();
+            putUninterruptibly(current);
+            current = null;
+        }
+    }
+}
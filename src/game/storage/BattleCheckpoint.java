@@ -0,0 +1,40 @@
+package game.storage;
+
+import java.util.List;
+
+/**
+ * Знімок стану бою, який періодично пишеться у лог.
+ *
+ * Реплей відновлює найближчий знімок перед потрібним моментом і програє
+ * лише події після нього (eventIndex — скільки подій логу вже враховано).
+ */
+public record BattleCheckpoint(
+        long timeMs,
+        int eventIndex,
+        long damageLeft,
+        long damageRight,
+        List<DroidState> droids,
+        List<ProjectileState> projectiles
+) {
+    public BattleCheckpoint {
+        droids = List.copyOf(droids);
+        projectiles = List.copyOf(projectiles);
+    }
+
+    /**
+     * Той самий знімок, привʼязаний до іншої позиції у списку подій.
+     */
+    public BattleCheckpoint withEventIndex(int index) {
+        return new BattleCheckpoint(timeMs, index, damageLeft, damageRight, droids, projectiles);
+    }
+
+    /**
+     * @param mirrorOverride -1 — немає, 0 — не віддзеркалювати, 1 — віддзеркалювати
+     */
+    public record DroidState(int id, int health, int energy, int x, int y, boolean locked, int mirrorOverride) {
+    }
+
+    public record ProjectileState(double x, double y, double vx, double vy,
+                                  int attackerId, int targetId, boolean willHit, int damage) {
+    }
+}
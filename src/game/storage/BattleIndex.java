@@ -0,0 +1,190 @@
+package game.storage;
+
+import game.battle.BattleMode;
+import game.battle.BattleSide;
+import game.droid.DroidType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Індекс збережених боїв: підсумки (BattleSummary) для всіх файлів теки.
+ *
+ * Зберігається окремим файлом поруч із логами, тож запити не відкривають самі логи.
+ * Формат (version=1): "DBIX", version:u8, root:utf, n:i32, n × підсумок;
+ * масиви за типами подій пишуться з довжиною, тож індекс зі старішим
+ * набором EventType теж читається.
+ */
+public class BattleIndex {
+    public static final String EXTENSION = ".dbix";
+
+    static final byte[] MAGIC = {'D', 'B', 'I', 'X'};
+    static final int FORMAT_VERSION = 1;
+
+    private final Path root;
+    private final List<BattleSummary> battles;
+    private final Map<String, BattleSummary> byPath = new HashMap<>();
+
+    public BattleIndex(Path root, List<BattleSummary> battles) {
+        this.root = root.toAbsolutePath().normalize();
+        this.battles = List.copyOf(battles);
+        for (BattleSummary s : this.battles) {
+            byPath.put(s.getPath(), s);
+        }
+    }
+
+    /**
+     * Тека, відносно якої записані шляхи у підсумках.
+     */
+    public Path getRoot() {
+        return root;
+    }
+
+    public List<BattleSummary> getBattles() {
+        return Collections.unmodifiableList(battles);
+    }
+
+    public int size() {
+        return battles.size();
+    }
+
+    /**
+     * Підсумок за відносним шляхом або null.
+     */
+    public BattleSummary find(String path) {
+        return byPath.get(path);
+    }
+
+    // -------- Файл індексу --------
+
+    /**
+     * Записує індекс через тимчасовий файл, щоб обірваний запис не зіпсував попередній.
+     */
+    public void save(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.write(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeUTF(root.toString());
+            out.writeInt(battles.size());
+            for (BattleSummary s : battles) {
+                writeSummary(out, s);
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static BattleIndex load(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Це не файл індексу боїв: " + path);
+            }
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Непідтримувана версія індексу: " + version);
+            }
+            Path root = Path.of(in.readUTF());
+            int n = in.readInt();
+            if (n < 0) throw new IOException("Пошкоджений індекс: " + path);
+            List<BattleSummary> battles = new ArrayList<>(Math.min(n, 1 << 16));
+            for (int i = 0; i < n; i++) {
+                battles.add(readSummary(in));
+            }
+            return new BattleIndex(root, battles);
+        } catch (EOFException e) {
+            throw new IOException("Обірваний файл індексу: " + path);
+        }
+    }
+
+    private static void writeSummary(DataOutputStream out, BattleSummary s) throws IOException {
+        out.writeUTF(s.getPath());
+        out.writeLong(s.getFileSize());
+        out.writeLong(s.getLastModifiedMs());
+        out.writeByte(s.getMode() == null ? -1 : s.getMode().ordinal());
+        out.writeLong(s.getCreatedAtMs());
+        out.writeLong(s.getDurationMs());
+        out.writeByte(s.getWinner() == null ? -1 : s.getWinner().ordinal());
+
+        List<DroidEntry> participants = s.getParticipants();
+        out.writeInt(participants.size());
+        for (int k = 0; k < participants.size(); k++) {
+            DroidEntry p = participants.get(k);
+            out.writeInt(p.getId());
+            out.writeUTF(p.getName() == null ? "" : p.getName());
+            out.writeByte(p.getType() == null ? -1 : p.getType().ordinal());
+            out.writeByte(p.getSide().ordinal());
+            out.writeLong(s.getDamageDealt(k));
+            out.writeLong(s.getDamageTaken(k));
+        }
+
+        int[] counts = s.eventCounts();
+        long[] first = s.firstEventTimes();
+        int[] max = s.maxValues();
+        out.writeShort(counts.length);
+        for (int t = 0; t < counts.length; t++) {
+            out.writeInt(counts[t]);
+            out.writeLong(first[t]);
+            out.writeInt(max[t]);
+        }
+    }
+
+    private static BattleSummary readSummary(DataInputStream in) throws IOException {
+        String path = in.readUTF();
+        long size = in.readLong();
+        long modified = in.readLong();
+        BattleMode mode = byOrdinal(BattleMode.values(), in.readByte());
+        long createdAt = in.readLong();
+        long duration = in.readLong();
+        BattleSide winner = byOrdinal(BattleSide.values(), in.readByte());
+
+        int n = in.readInt();
+        if (n < 0) throw new IOException("Пошкоджений індекс: " + path);
+        List<DroidEntry> participants = new ArrayList<>(n);
+        long[] dealt = new long[n];
+        long[] taken = new long[n];
+        for (int k = 0; k < n; k++) {
+            int id = in.readInt();
+            String name = in.readUTF();
+            DroidType type = byOrdinal(DroidType.values(), in.readByte());
+            BattleSide side = byOrdinal(BattleSide.values(), in.readByte());
+            participants.add(new DroidEntry(id, name, type, side == null ? BattleSide.LEFT : side));
+            dealt[k] = in.readLong();
+            taken[k] = in.readLong();
+        }
+
+        int types = in.readUnsignedShort();
+        int[] counts = new int[types];
+        long[] first = new long[types];
+        int[] max = new int[types];
+        for (int t = 0; t < types; t++) {
+            counts[t] = in.readInt();
+            first[t] = in.readLong();
+            max[t] = in.readInt();
+        }
+        return new BattleSummary(path, size, modified, mode, createdAt, duration, winner,
+                participants, dealt, taken, counts, first, max);
+    }
+
+    private static <T> T byOrdinal(T[] values, int ordinal) {
+        return (ordinal >= 0 && ordinal < values.length) ? values[ordinal] : null;
+    }
+}
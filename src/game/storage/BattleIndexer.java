@@ -0,0 +1,124 @@
+package game.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Будує BattleIndex для теки з логами боїв: файли читаються паралельно на ForkJoinPool.
+ *
+ * Файли, що не змінились з минулого індексу (той самий розмір і час зміни),
+ * не перечитуються. Файли, які не вдалося прочитати, пропускаються і
+ * потрапляють у getFailures().
+ */
+public class BattleIndexer implements AutoCloseable {
+    private final ForkJoinPool pool;
+
+    private final ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger reused = new AtomicInteger();
+
+    public BattleIndexer() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public BattleIndexer(int parallelism) {
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    /**
+     * @param previous попередній індекс цієї ж теки (або null)
+     */
+    public BattleIndex build(Path dir, BattleIndex previous) throws IOException {
+        Path root = dir.toAbsolutePath().normalize();
+        if (!Files.isDirectory(root)) {
+            throw new IOException("Тека не знайдена: " + dir);
+        }
+        failures.clear();
+        reused.set(0);
+        BattleIndex old = (previous != null && previous.getRoot().equals(root)) ? previous : null;
+
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile)
+                    .filter(BattleIndexer::isBattleLog)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        List<BattleSummary> summaries;
+        try {
+            summaries = pool.submit(() -> files.parallelStream()
+                    .map(f -> summarize(root, f, old))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList())
+            ).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Індексацію перервано");
+        } catch (ExecutionException e) {
+            throw new IOException("Помилка індексації: " + e.getCause(), e.getCause());
+        }
+        summaries.sort(Comparator.comparing(BattleSummary::getPath));
+        return new BattleIndex(root, summaries);
+    }
+
+    /**
+     * Файли з останнього build(), які не вдалося прочитати (шлях: причина).
+     */
+    public List<String> getFailures() {
+        List<String> list = new ArrayList<>(failures);
+        Collections.sort(list);
+        return list;
+    }
+
+    /**
+     * Скільки підсумків з останнього build() взято з попереднього індексу без читання файлу.
+     */
+    public int getReusedCount() {
+        return reused.get();
+    }
+
+    private BattleSummary summarize(Path root, Path file, BattleIndex old) {
+        String rel = root.relativize(file).toString().replace('\\', '/');
+        try {
+            long size = Files.size(file);
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            if (old != null) {
+                BattleSummary prev = old.find(rel);
+                if (prev != null && prev.getFileSize() == size && prev.getLastModifiedMs() == modified) {
+                    reused.incrementAndGet();
+                    return prev;
+                }
+            }
+            return BattleSummary.of(rel, size, modified, BattleLogIO.read(file));
+        } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+            failures.add(rel + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean isBattleLog(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(BattleLogFormat.GZIP_EXTENSION)) {
+            name = name.substring(0, name.length() - BattleLogFormat.GZIP_EXTENSION.length());
+        }
+        return name.endsWith(".txt") || name.endsWith(BattleLogFormat.BINARY_EXTENSION);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
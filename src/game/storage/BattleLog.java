@@ -4,22 +4,48 @@ import game.battle.BattleMode;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Лог бою: учасники + події.
+ *
+ * Події зберігаються у примітивному буфері (час, тип, до 4 полів), тож запис
+ * події з двигуна не створює обʼєктів. Представлення Map<String,String>
+ * (BattleEvent) і типізовані записи (TypedBattleEvent) будуються лише на вимогу.
+ */
 public class BattleLog {
-    public static final int VERSION = 1;
+    // 2 — додано знімки стану (CHECKPOINT)
+    public static final int VERSION = 2;
 
     private final BattleMode mode;
     private final Instant createdAt;
 
     private final List<DroidEntry> participants = new ArrayList<>();
-    private final List<BattleEvent> events = new ArrayList<>();
+    private final EventBuffer events = new EventBuffer();
+
+    // Події невідомих типів (з чужих/старих файлів) — у буфері лежить лише індекс сюди
+    private final List<BattleEvent> customEvents = new ArrayList<>();
+
+    // Знімки стану для перемотки реплею, упорядковані за часом
+    private final List<BattleCheckpoint> checkpoints = new ArrayList<>();
+
+    // Отримують кожну нову подію (потоковий запис у файл тощо).
+    // Копія при зміні: потік бою обходить масив без блокувань, а слухача можна
+    // додати чи зняти з іншого потоку (наприклад, з UI) посеред бою
+    private static final BattleLogListener[] NO_LISTENERS = new BattleLogListener[0];
+    private volatile BattleLogListener[] listeners = NO_LISTENERS;
 
     public BattleLog(BattleMode mode) {
+        this(mode, Instant.now());
+    }
+
+    public BattleLog(BattleMode mode, Instant createdAt) {
         this.mode = mode;
-        this.createdAt = Instant.now();
+        this.createdAt = (createdAt != null) ? createdAt : Instant.now();
     }
 
     public BattleMode getMode() {
@@ -38,14 +64,179 @@ public class BattleLog {
         return Collections.unmodifiableList(participants);
     }
 
+    // -------- Запис подій --------
+
+    public int append(long timeMs, EventType type) {
+        return append(timeMs, type, 0, 0, 0, 0);
+    }
+
+    public int append(long timeMs, EventType type, int a) {
+        return append(timeMs, type, a, 0, 0, 0);
+    }
+
+    public int append(long timeMs, EventType type, int a, int b) {
+        return append(timeMs, type, a, b, 0, 0);
+    }
+
+    public int append(long timeMs, EventType type, int a, int b, int c) {
+        return append(timeMs, type, a, b, c, 0);
+    }
+
+    /**
+     * Додає типізовану подію; поля — у порядку EventType.getFields().
+     */
+    public int append(long timeMs, EventType type, int a, int b, int c, int d) {
+        int index = events.append(Math.max(0, timeMs), (byte) type.code(), a, b, c, d);
+        notifyListeners(index);
+        return index;
+    }
+
+    /**
+     * Додає подію у вигляді Map. Відомі типи переводяться у примітивний вигляд,
+     * решта зберігається як є.
+     */
     public void addEvent(BattleEvent event) {
-        events.add(event);
+        EventType type = EventType.fromName(event.getType());
+        if (type != null) {
+            int[] v = new int[EventBuffer.MAX_FIELDS];
+            if (type.parseFields(event.getData(), v)) {
+                append(event.getTimeMs(), type, v[0], v[1], v[2], v[3]);
+                return;
+            }
+        }
+        customEvents.add(event);
+        int index = events.append(event.getTimeMs(), EventBuffer.CUSTOM, customEvents.size() - 1, 0, 0, 0);
+        notifyListeners(index);
+    }
+
+    /**
+     * Очищає події (масиви буфера лишаються для повторного використання).
+     */
+    public void clearEvents() {
+        events.clear();
+        customEvents.clear();
+        checkpoints.clear();
+    }
+
+    /**
+     * Додає знімок стану; eventIndex знімка має вказувати на кінець уже записаних подій.
+     */
+    public void addCheckpoint(BattleCheckpoint checkpoint) {
+        if (checkpoint == null) return;
+        if (checkpoint.eventIndex() < 0 || checkpoint.eventIndex() > events.size()) {
+            throw new IllegalArgumentException("Некоректний індекс події у знімку: " + checkpoint.eventIndex());
+        }
+        checkpoints.add(checkpoint);
+        for (BattleLogListener l : listeners) {
+            l.onCheckpoint(this, checkpoint);
+        }
+    }
+
+    public List<BattleCheckpoint> getCheckpoints() {
+        return Collections.unmodifiableList(checkpoints);
+    }
+
+    /**
+     * Останній знімок з часом <= timeMs або null.
+     */
+    public BattleCheckpoint checkpointAtOrBefore(long timeMs) {
+        int lo = 0;
+        int hi = checkpoints.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (checkpoints.get(mid).timeMs() <= timeMs) lo = mid + 1;
+            else hi = mid;
+        }
+        return (lo == 0) ? null : checkpoints.get(lo - 1);
+    }
+
+    public synchronized void addListener(BattleLogListener listener) {
+        if (listener == null) return;
+        BattleLogListener[] next = Arrays.copyOf(listeners, listeners.length + 1);
+        next[next.length - 1] = listener;
+        listeners = next;
+    }
+
+    public synchronized void removeListener(BattleLogListener listener) {
+        BattleLogListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] != listener) continue;
+            BattleLogListener[] next = new BattleLogListener[current.length - 1];
+            System.arraycopy(current, 0, next, 0, i);
+            System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+            listeners = next;
+            return;
+        }
+    }
+
+    private void notifyListeners(int index) {
+        for (BattleLogListener l : listeners) {
+            l.onEvent(this, index);
+        }
+    }
+
+    // -------- Читання подій (упорядковані за часом) --------
+
+    public int getEventCount() {
+        return events.size();
+    }
+
+    public long getEventTime(int index) {
+        return events.time(index);
+    }
+
+    /**
+     * Тип події або null, якщо це подія невідомого типу.
+     */
+    public EventType getEventType(int index) {
+        byte code = events.type(index);
+        return (code == EventBuffer.CUSTOM) ? null : EventType.fromCode(code);
+    }
+
+    public int getEventField(int index, int field) {
+        return events.field(index, field);
+    }
+
+    /**
+     * Індекс першої події з часом > timeMs.
+     */
+    public int firstEventAfter(long timeMs) {
+        return events.upperBound(timeMs);
+    }
+
+    /**
+     * Типізована подія або null для подій невідомого типу.
+     */
+    public TypedBattleEvent getTypedEvent(int index) {
+        EventType type = getEventType(index);
+        if (type == null) return null;
+        return TypedBattleEvent.of(events.time(index), type,
+                events.field(index, 0), events.field(index, 1),
+                events.field(index, 2), events.field(index, 3));
+    }
+
+    /**
+     * Подія у вигляді Map<String,String> (для текстового формату).
+     */
+    public BattleEvent getEvent(int index) {
+        EventType type = getEventType(index);
+        if (type == null) {
+            return customEvents.get(events.field(index, 0));
+        }
+        List<String> fields = type.getFields();
+        Map<String, String> data = new HashMap<>();
+        for (int k = 0; k < fields.size(); k++) {
+            String key = fields.get(k);
+            data.put(key, EventType.toText(key, events.field(index, k)));
+        }
+        return new BattleEvent(events.time(index), type.name(), data);
     }
 
     public List<BattleEvent> getEvents() {
-        // гарантуємо порядок по часу
-        List<BattleEvent> copy = new ArrayList<>(events);
-        copy.sort(Comparator.comparingLong(BattleEvent::getTimeMs));
+        List<BattleEvent> copy = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            copy.add(getEvent(i));
+        }
         return copy;
     }
 }
@@ -0,0 +1,75 @@
+package game.storage;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Конвертація файлів бою між текстовим і бінарним форматами.
+ * Формат джерела визначається за вмістом, формат результату — за розширенням
+ * (.dblg — бінарний, .gz у кінці — стиснений).
+ */
+public final class BattleLogConverter {
+    private BattleLogConverter() {
+    }
+
+    public static void convert(Path source, Path target) throws IOException {
+        if (source == null || target == null) throw new IllegalArgumentException("path is null");
+
+        BattleLogFormat from = BattleLogFormat.detect(source);
+        BattleLogFormat to = BattleLogFormat.fromPath(target);
+
+        if (from == BattleLogFormat.BINARY && to == BattleLogFormat.TEXT && !BattleLogFormat.isCompressed(source)) {
+            binaryToText(source, target);
+        } else {
+            // текст і стиснені файли читаються цілим логом, тож достатньо звичайного запису
+            BattleLogIO.write(BattleLogIO.read(source), target);
+        }
+    }
+
+    /**
+     * Бінарний -> текстовий без завантаження всього логу в памʼять.
+     */
+    private static void binaryToText(Path source, Path target) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        try (BinaryBattleLogReader r = BinaryBattleLogReader.open(source);
+             Writer w = openText(target)) {
+            StringBuilder sb = new StringBuilder();
+            BattleLogIO.appendMeta(sb, new BattleLog(r.getMode(), r.getCreatedAt()));
+            for (DroidEntry p : r.getParticipants()) {
+                BattleLogIO.appendDroid(sb, p);
+            }
+            w.append(sb);
+
+            while (r.hasNext()) {
+                sb.setLength(0);
+                for (BattleCheckpoint cp : r.drainCheckpoints()) {
+                    BattleLogIO.appendCheckpoint(sb, cp);
+                }
+                BattleLogIO.appendEvent(sb, r.next());
+                w.append(sb);
+            }
+            sb.setLength(0);
+            for (BattleCheckpoint cp : r.drainCheckpoints()) {
+                BattleLogIO.appendCheckpoint(sb, cp);
+            }
+            w.append(sb);
+        }
+    }
+
+    private static Writer openText(Path target) throws IOException {
+        if (BattleLogFormat.isCompressedName(target)) {
+            return new BufferedWriter(new OutputStreamWriter(
+                    new BlockGzipOutputStream(Files.newOutputStream(target)), StandardCharsets.UTF_8), 64 * 1024);
+        }
+        return Files.newBufferedWriter(target, StandardCharsets.UTF_8);
+    }
+}
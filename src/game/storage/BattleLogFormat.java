@@ -0,0 +1,69 @@
+package game.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Формат файлу бою: текстовий (META|...) або компактний бінарний.
+ * Будь-який з них може бути стиснений gzip (розширення .gz, напр. battle.txt.gz).
+ */
+public enum BattleLogFormat {
+    TEXT,
+    BINARY;
+
+    public static final String BINARY_EXTENSION = ".dblg";
+    public static final String GZIP_EXTENSION = ".gz";
+
+    /**
+     * Формат для запису — за розширенням файлу (без .gz).
+     */
+    public static BattleLogFormat fromPath(Path path) {
+        String name = fileName(path);
+        if (name.endsWith(GZIP_EXTENSION)) {
+            name = name.substring(0, name.length() - GZIP_EXTENSION.length());
+        }
+        return name.endsWith(BINARY_EXTENSION) ? BINARY : TEXT;
+    }
+
+    /**
+     * Чи стискати під час запису — за розширенням .gz.
+     */
+    public static boolean isCompressedName(Path path) {
+        return fileName(path).endsWith(GZIP_EXTENSION);
+    }
+
+    /**
+     * Той самий шлях із .gz у кінці (якщо його ще немає).
+     */
+    public static Path withCompression(Path path) {
+        return isCompressedName(path) ? path : path.resolveSibling(path.getFileName() + GZIP_EXTENSION);
+    }
+
+    /**
+     * Чи стиснений файл — за сигнатурою gzip.
+     */
+    public static boolean isCompressed(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] head = in.readNBytes(2);
+            return head.length == 2 && (head[0] & 0xFF) == 0x1f && (head[1] & 0xFF) == 0x8b;
+        }
+    }
+
+    /**
+     * Формат для читання — за сигнатурою на початку (розпакованого) вмісту.
+     */
+    public static BattleLogFormat detect(Path path) throws IOException {
+        byte[] magic = BinaryBattleLogWriter.MAGIC;
+        try (InputStream in = isCompressed(path) ? BlockGzipInputStream.openAny(path) : Files.newInputStream(path)) {
+            byte[] head = in.readNBytes(magic.length);
+            return Arrays.equals(head, magic) ? BINARY : TEXT;
+        }
+    }
+
+    private static String fileName(Path path) {
+        return path.getFileName() != null ? path.getFileName().toString().toLowerCase() : "";
+    }
+}
@@ -3,10 +3,18 @@ package game.storage;
 import game.battle.BattleMode;
 import game.battle.BattleSide;
 import game.droid.DroidType;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -14,10 +22,16 @@ import java.util.Map;
 /**
  * Запис / читання бою у текстовий файл.
  *
- * Формат (version=1):
- * META|version=1|mode=TEAM_VS_TEAM|createdAt=...
+ * Формат (version=2):
+ * META|version=2|mode=TEAM_VS_TEAM|createdAt=...
  * DROID|id=1|name=...|type=Crusher|side=LEFT
  * EVENT|t=1200|type=LASER_SHOT|attacker=1|target=2|...
+ * CHECKPOINT|t=5000|damage=120,80|droids=id:hp:energy:x:y:locked:mirror;...|shots=x:y:vx:vy:attacker:target:hit:damage;...
+ * (знімок стану стоїть після подій, які він уже враховує; версія 1 — без знімків)
+ *
+ * Файли з розширенням .dblg пишуться у бінарному форматі (BinaryBattleLogWriter),
+ * з .gz у кінці (battle.txt.gz, battle.dblg.gz) — ще й стискаються блоками
+ * (BlockGzipOutputStream); під час читання формат і стиснення визначаються за вмістом файлу.
  */
 public final class BattleLogIO {
     private BattleLogIO() {
@@ -31,32 +45,38 @@ public final class BattleLogIO {
         if (log == null) throw new IllegalArgumentException("log is null");
         if (path == null) throw new IllegalArgumentException("path is null");
 
-        StringBuilder sb = new StringBuilder();
-        sb.append("META|version=").append(BattleLog.VERSION)
-                .append("|mode=").append(log.getMode())
-                .append("|createdAt=").append(log.getCreatedAt()).append('\n');
+        if (BattleLogFormat.fromPath(path) == BattleLogFormat.BINARY) {
+            BinaryBattleLogWriter.write(log, path);
+            return;
+        }
 
+        StringBuilder sb = new StringBuilder();
+        appendMeta(sb, log);
         for (DroidEntry p : log.getParticipants()) {
-            sb.append("DROID|id=").append(p.getId())
-                    .append("|name=").append(escape(p.getName()))
-                    .append("|type=").append(p.getType().getDisplayName())
-                    .append("|side=").append(p.getSide())
-                    .append('\n');
-        }
-
-        for (BattleEvent e : log.getEvents()) {
-            sb.append("EVENT|t=").append(e.getTimeMs())
-                    .append("|type=").append(e.getType());
-            for (Map.Entry<String, String> kv : e.getData().entrySet()) {
-                sb.append('|').append(kv.getKey()).append('=').append(escape(kv.getValue()));
+            appendDroid(sb, p);
+        }
+        List<BattleCheckpoint> checkpoints = log.getCheckpoints();
+        int c = 0;
+        for (int i = 0; i < log.getEventCount(); i++) {
+            while (c < checkpoints.size() && checkpoints.get(c).eventIndex() <= i) {
+                appendCheckpoint(sb, checkpoints.get(c++));
             }
-            sb.append('\n');
+            appendEvent(sb, log, i);
+        }
+        while (c < checkpoints.size()) {
+            appendCheckpoint(sb, checkpoints.get(c++));
         }
 
         Path parent = path.toAbsolutePath().getParent();
         if (parent != null) {
             Files.createDirectories(parent);
         }
+        if (BattleLogFormat.isCompressedName(path)) {
+            try (OutputStream out = new BlockGzipOutputStream(Files.newOutputStream(path))) {
+                out.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            return;
+        }
         Files.writeString(path, sb.toString(), StandardCharsets.UTF_8);
     }
 
@@ -65,13 +85,34 @@ public final class BattleLogIO {
     }
 
     public static BattleLog read(Path path) throws IOException {
-        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
-        if (lines.isEmpty()) throw new IOException("Порожній файл бою.");
+        boolean compressed = BattleLogFormat.isCompressed(path);
+        if (BattleLogFormat.detect(path) == BattleLogFormat.BINARY) {
+            if (!compressed) return BinaryBattleLogReader.read(path);
+            // бінарний лог компактний — розпаковуємо цілком і читаємо з памʼяті
+            try (InputStream in = BlockGzipInputStream.openAny(path)) {
+                return BinaryBattleLogReader.read(ByteBuffer.wrap(in.readAllBytes()));
+            }
+        }
 
+        if (!compressed) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                return readText(reader);
+            }
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(BlockGzipInputStream.openAny(path), StandardCharsets.UTF_8), 64 * 1024)) {
+            return readText(reader);
+        }
+    }
+
+    private static BattleLog readText(BufferedReader reader) throws IOException {
         BattleLog log = null;
+        int[] values = new int[EventBuffer.MAX_FIELDS];
+        boolean empty = true;
 
-        for (String line : lines) {
-            if (line == null) continue;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            empty = false;
             String trimmed = line.trim();
             if (trimmed.isEmpty()) continue;
 
@@ -83,8 +124,7 @@ public final class BattleLogIO {
                 Map<String, String> meta = parseKeyValues(parts, 1);
                 String modeStr = meta.get("mode");
                 BattleMode mode = modeStr != null ? BattleMode.valueOf(modeStr) : BattleMode.ONE_VS_ONE;
-                log = new BattleLog(mode);
-                // createdAt ми зараз не перезаписуємо (не критично для реплею)
+                log = new BattleLog(mode, parseInstant(meta.get("createdAt")));
 
             } else if ("DROID".equalsIgnoreCase(tag)) {
                 if (log == null) throw new IOException("META не знайдено перед DROID");
@@ -107,14 +147,134 @@ public final class BattleLogIO {
                 for (Map.Entry<String, String> e : kv.entrySet()) {
                     data.put(e.getKey(), unescape(e.getValue()));
                 }
-                log.addEvent(new BattleEvent(t, type, data));
+                EventType known = EventType.fromName(type);
+                if (known != null && known.parseFields(data, values)) {
+                    log.append(t, known, values[0], values[1], values[2], values[3]);
+                } else {
+                    log.addEvent(new BattleEvent(t, type, data));
+                }
+
+            } else if ("CHECKPOINT".equalsIgnoreCase(tag)) {
+                if (log == null) throw new IOException("META не знайдено перед CHECKPOINT");
+                log.addCheckpoint(parseCheckpoint(parseKeyValues(parts, 1), log.getEventCount()));
             }
         }
 
+        if (empty) throw new IOException("Порожній файл бою.");
         if (log == null) throw new IOException("Не вдалося прочитати META з файлу.");
         return log;
     }
 
+    static void appendMeta(StringBuilder sb, BattleLog log) {
+        sb.append("META|version=").append(BattleLog.VERSION)
+                .append("|mode=").append(log.getMode())
+                .append("|createdAt=").append(log.getCreatedAt()).append('\n');
+    }
+
+    static void appendDroid(StringBuilder sb, DroidEntry p) {
+        sb.append("DROID|id=").append(p.getId())
+                .append("|name=").append(escape(p.getName()));
+        // невідомий тип не пишемо — при читанні він так само стане null
+        if (p.getType() != null) sb.append("|type=").append(p.getType().getDisplayName());
+        sb.append("|side=").append(p.getSide())
+                .append('\n');
+    }
+
+    static void appendEvent(StringBuilder sb, BattleLog log, int index) {
+        EventType type = log.getEventType(index);
+        if (type == null) {
+            appendEvent(sb, log.getEvent(index));
+            return;
+        }
+        sb.append("EVENT|t=").append(log.getEventTime(index))
+                .append("|type=").append(type.name());
+        List<String> fields = type.getFields();
+        for (int k = 0; k < fields.size(); k++) {
+            String key = fields.get(k);
+            sb.append('|').append(key).append('=');
+            EventType.appendText(sb, key, log.getEventField(index, k));
+        }
+        sb.append('\n');
+    }
+
+    static void appendEvent(StringBuilder sb, BattleEvent e) {
+        sb.append("EVENT|t=").append(e.getTimeMs())
+                .append("|type=").append(e.getType());
+        for (Map.Entry<String, String> kv : e.getData().entrySet()) {
+            sb.append('|').append(kv.getKey()).append('=').append(escape(kv.getValue()));
+        }
+        sb.append('\n');
+    }
+
+    static void appendCheckpoint(StringBuilder sb, BattleCheckpoint cp) {
+        sb.append("CHECKPOINT|t=").append(cp.timeMs())
+                .append("|damage=").append(cp.damageLeft()).append(',').append(cp.damageRight())
+                .append("|droids=");
+        for (int i = 0; i < cp.droids().size(); i++) {
+            BattleCheckpoint.DroidState d = cp.droids().get(i);
+            if (i > 0) sb.append(';');
+            sb.append(d.id()).append(':').append(d.health()).append(':').append(d.energy())
+                    .append(':').append(d.x()).append(':').append(d.y())
+                    .append(':').append(d.locked() ? 1 : 0).append(':').append(d.mirrorOverride());
+        }
+        sb.append("|shots=");
+        for (int i = 0; i < cp.projectiles().size(); i++) {
+            BattleCheckpoint.ProjectileState p = cp.projectiles().get(i);
+            if (i > 0) sb.append(';');
+            sb.append(p.x()).append(':').append(p.y()).append(':').append(p.vx()).append(':').append(p.vy())
+                    .append(':').append(p.attackerId()).append(':').append(p.targetId())
+                    .append(':').append(p.willHit() ? 1 : 0).append(':').append(p.damage());
+        }
+        sb.append('\n');
+    }
+
+    private static BattleCheckpoint parseCheckpoint(Map<String, String> kv, int eventIndex) throws IOException {
+        try {
+            long t = Long.parseLong(kv.getOrDefault("t", "0").trim());
+            String[] damage = kv.getOrDefault("damage", "0,0").split(",");
+            long damageLeft = Long.parseLong(damage[0].trim());
+            long damageRight = (damage.length > 1) ? Long.parseLong(damage[1].trim()) : 0;
+
+            List<BattleCheckpoint.DroidState> droids = new ArrayList<>();
+            for (String item : splitItems(kv.get("droids"))) {
+                String[] f = item.split(":");
+                if (f.length < 7) throw new IOException("Некоректний стан дроїда у CHECKPOINT: " + item);
+                droids.add(new BattleCheckpoint.DroidState(
+                        Integer.parseInt(f[0]), Integer.parseInt(f[1]), Integer.parseInt(f[2]),
+                        Integer.parseInt(f[3]), Integer.parseInt(f[4]),
+                        "1".equals(f[5]), Integer.parseInt(f[6])));
+            }
+
+            List<BattleCheckpoint.ProjectileState> shots = new ArrayList<>();
+            for (String item : splitItems(kv.get("shots"))) {
+                String[] f = item.split(":");
+                if (f.length < 8) throw new IOException("Некоректний снаряд у CHECKPOINT: " + item);
+                shots.add(new BattleCheckpoint.ProjectileState(
+                        Double.parseDouble(f[0]), Double.parseDouble(f[1]),
+                        Double.parseDouble(f[2]), Double.parseDouble(f[3]),
+                        Integer.parseInt(f[4]), Integer.parseInt(f[5]),
+                        "1".equals(f[6]), Integer.parseInt(f[7])));
+            }
+            return new BattleCheckpoint(t, eventIndex, damageLeft, damageRight, droids, shots);
+        } catch (NumberFormatException e) {
+            throw new IOException("Некоректний CHECKPOINT: " + e.getMessage());
+        }
+    }
+
+    private static String[] splitItems(String s) {
+        if (s == null || s.trim().isEmpty()) return new String[0];
+        return s.trim().split(";");
+    }
+
+    private static Instant parseInstant(String s) {
+        if (s == null || s.isEmpty()) return null;
+        try {
+            return Instant.parse(s.trim());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
     private static Map<String, String> parseKeyValues(String[] parts, int fromIndex) {
         Map<String, String> map = new HashMap<>();
         for (int i = fromIndex; i < parts.length; i++) {
@@ -0,0 +1,14 @@
+package game.storage;
+
+/**
+ * Отримує кожну нову подію BattleLog (за індексом, без створення обʼєктів).
+ */
+public interface BattleLogListener {
+    void onEvent(BattleLog log, int index);
+
+    /**
+     * Новий знімок стану (пишеться раз на кілька секунд бою).
+     */
+    default void onCheckpoint(BattleLog log, BattleCheckpoint checkpoint) {
+    }
+}
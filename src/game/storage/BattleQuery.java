@@ -0,0 +1,175 @@
+package game.storage;
+
+import game.battle.BattleMode;
+import game.battle.BattleSide;
+import game.droid.DroidType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Запит до BattleIndex: умови через «і», кожна у вигляді поле+оператор+значення.
+ *
+ * Текстові поля (лише = та !=):
+ *   mode=TEAM_VS_TEAM, winner=LEFT|RIGHT|NONE, droid=Phantom (є такий учасник)
+ * Числові поля (=, !=, >, >=, <, <=):
+ *   duration, events, count.ТИП, first.ТИП, max.ТИП, dealt.Дроїд, taken.Дроїд
+ *   (ТИП — EventType, напр. max.PHANTOM_STRIKE>60; first.ТИП = -1, якщо події не було)
+ */
+public class BattleQuery {
+    private static final String[] OPERATORS = {">=", "<=", "!=", ">", "<", "="};
+
+    private final List<String> conditions;
+    private final Predicate<BattleSummary> predicate;
+
+    private BattleQuery(List<String> conditions, Predicate<BattleSummary> predicate) {
+        this.conditions = List.copyOf(conditions);
+        this.predicate = predicate;
+    }
+
+    public static BattleQuery parse(List<String> conditions) {
+        Predicate<BattleSummary> all = s -> true;
+        for (String c : conditions) {
+            all = all.and(parseCondition(c));
+        }
+        return new BattleQuery(conditions, all);
+    }
+
+    public List<String> getConditions() {
+        return conditions;
+    }
+
+    public boolean matches(BattleSummary summary) {
+        return predicate.test(summary);
+    }
+
+    public List<BattleSummary> run(BattleIndex index) {
+        List<BattleSummary> result = new ArrayList<>();
+        for (BattleSummary s : index.getBattles()) {
+            if (predicate.test(s)) result.add(s);
+        }
+        return result;
+    }
+
+    /**
+     * Числове поле підсумку за назвою (як в умовах), напр. "first.DROID_DEFEATED".
+     */
+    public static ToLongFunction<BattleSummary> numericField(String name) {
+        String field = name.trim();
+        int dot = field.indexOf('.');
+        String head = (dot >= 0) ? field.substring(0, dot) : field;
+        String arg = (dot >= 0) ? field.substring(dot + 1).trim() : null;
+
+        switch (head.toLowerCase()) {
+            case "duration":
+                return BattleSummary::getDurationMs;
+            case "events":
+                return BattleSummary::getTotalEvents;
+            case "count": {
+                EventType t = eventType(arg, field);
+                return s -> s.getEventCount(t);
+            }
+            case "first": {
+                EventType t = eventType(arg, field);
+                return s -> s.getFirstEventMs(t);
+            }
+            case "max": {
+                EventType t = eventType(arg, field);
+                return s -> s.getMaxValue(t);
+            }
+            case "dealt": {
+                DroidType t = droidType(arg, field);
+                return s -> s.getDamageDealtBy(t);
+            }
+            case "taken": {
+                DroidType t = droidType(arg, field);
+                return s -> s.getDamageTakenBy(t);
+            }
+            default:
+                throw new IllegalArgumentException("Невідоме поле: " + field);
+        }
+    }
+
+    private static Predicate<BattleSummary> parseCondition(String condition) {
+        String c = condition.trim();
+        for (String op : OPERATORS) {
+            int at = c.indexOf(op);
+            if (at <= 0) continue;
+            String field = c.substring(0, at).trim();
+            String value = c.substring(at + op.length()).trim();
+            if (value.isEmpty()) break;
+            return condition(field, op, value);
+        }
+        throw new IllegalArgumentException("Некоректна умова: " + condition);
+    }
+
+    private static Predicate<BattleSummary> condition(String field, String op, String value) {
+        Predicate<BattleSummary> text = textCondition(field, value);
+        if (text != null) {
+            if (op.equals("=")) return text;
+            if (op.equals("!=")) return text.negate();
+            throw new IllegalArgumentException("Для поля " + field + " можна лише = або !=");
+        }
+
+        ToLongFunction<BattleSummary> f = numericField(field);
+        long v;
+        try {
+            v = Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Очікувалось число: " + field + op + value);
+        }
+        return switch (op) {
+            case ">=" -> s -> f.applyAsLong(s) >= v;
+            case "<=" -> s -> f.applyAsLong(s) <= v;
+            case "!=" -> s -> f.applyAsLong(s) != v;
+            case ">" -> s -> f.applyAsLong(s) > v;
+            case "<" -> s -> f.applyAsLong(s) < v;
+            default -> s -> f.applyAsLong(s) == v;
+        };
+    }
+
+    // null — це не текстове поле
+    private static Predicate<BattleSummary> textCondition(String field, String value) {
+        switch (field.toLowerCase()) {
+            case "mode": {
+                BattleMode mode;
+                try {
+                    mode = BattleMode.valueOf(value.toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Невідомий режим: " + value);
+                }
+                return s -> s.getMode() == mode;
+            }
+            case "winner": {
+                if (value.equalsIgnoreCase("NONE")) return s -> s.getWinner() == null;
+                BattleSide side;
+                try {
+                    side = BattleSide.valueOf(value.toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Невідома сторона: " + value);
+                }
+                return s -> s.getWinner() == side;
+            }
+            case "droid": {
+                DroidType t = droidType(value, field + "=" + value);
+                return s -> s.hasDroidType(t);
+            }
+            default:
+                return null;
+        }
+    }
+
+    private static EventType eventType(String name, String field) {
+        EventType t = (name == null) ? null : EventType.fromName(name.toUpperCase());
+        if (t == null) throw new IllegalArgumentException("Невідомий тип події у полі: " + field);
+        return t;
+    }
+
+    private static DroidType droidType(String name, String field) {
+        DroidType t = DroidType.fromDisplayName(name);
+        if (t == null) throw new IllegalArgumentException("Невідомий тип дроїда: " + field);
+        return t;
+    }
+}
@@ -0,0 +1,245 @@
+package game.storage;
+
+import game.battle.BattleMode;
+import game.battle.BattleSide;
+import game.droid.DroidType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Стислий підсумок одного збереженого бою для індексу.
+ *
+ * Лічильники подій, час першої події та найбільше значення (шкода/лікування)
+ * зберігаються за кодом EventType; шкода учасників — у тому ж порядку, що й participants.
+ */
+public class BattleSummary {
+    private static final EventType[] TYPES = EventType.values();
+    // Яке поле події вважати «значенням» для max (шкода або лікування); -1 — немає
+    private static final int[] VALUE_FIELD = new int[TYPES.length];
+
+    static {
+        for (EventType t : TYPES) {
+            List<String> f = t.getFields();
+            int k = f.indexOf("damage");
+            if (k < 0) k = f.indexOf("damageApplied");
+            if (k < 0) k = f.indexOf("amount");
+            VALUE_FIELD[t.code()] = k;
+        }
+    }
+
+    private final String path;
+    private final long fileSize;
+    private final long lastModifiedMs;
+
+    private final BattleMode mode;
+    private final long createdAtMs;
+    private final long durationMs;
+    private final BattleSide winner;
+
+    private final List<DroidEntry> participants;
+    private final long[] damageDealt;
+    private final long[] damageTaken;
+
+    private final int[] eventCounts;
+    private final long[] firstEventMs;
+    private final int[] maxValue;
+
+    BattleSummary(String path, long fileSize, long lastModifiedMs,
+                  BattleMode mode, long createdAtMs, long durationMs, BattleSide winner,
+                  List<DroidEntry> participants, long[] damageDealt, long[] damageTaken,
+                  int[] eventCounts, long[] firstEventMs, int[] maxValue) {
+        this.path = path;
+        this.fileSize = fileSize;
+        this.lastModifiedMs = lastModifiedMs;
+        this.mode = mode;
+        this.createdAtMs = createdAtMs;
+        this.durationMs = durationMs;
+        this.winner = winner;
+        this.participants = List.copyOf(participants);
+        this.damageDealt = damageDealt;
+        this.damageTaken = damageTaken;
+        this.eventCounts = eventCounts;
+        this.firstEventMs = firstEventMs;
+        this.maxValue = maxValue;
+    }
+
+    /**
+     * Підсумок за вже прочитаним логом (один прохід по примітивному буферу подій).
+     */
+    public static BattleSummary of(String path, long fileSize, long lastModifiedMs, BattleLog log) {
+        List<DroidEntry> participants = log.getParticipants();
+        int n = participants.size();
+        Map<Integer, Integer> slotById = new HashMap<>();
+        for (int k = 0; k < n; k++) {
+            slotById.put(participants.get(k).getId(), k);
+        }
+
+        int[] counts = new int[TYPES.length];
+        long[] first = new long[TYPES.length];
+        int[] max = new int[TYPES.length];
+        Arrays.fill(first, -1);
+
+        // Шкода за STATS (фактично завдана) і запасний варіант за влучаннями — для логів без STATS
+        long[] dealtStats = new long[n];
+        long[] takenStats = new long[n];
+        long[] dealtHits = new long[n];
+        long[] takenHits = new long[n];
+
+        BattleSide winner = null;
+        long duration = 0;
+        for (int i = 0; i < log.getEventCount(); i++) {
+            long t = log.getEventTime(i);
+            duration = Math.max(duration, t);
+            EventType type = log.getEventType(i);
+            if (type == null) continue;
+
+            int code = type.code();
+            counts[code]++;
+            if (first[code] < 0) first[code] = t;
+            int vf = VALUE_FIELD[code];
+            if (vf >= 0) max[code] = Math.max(max[code], log.getEventField(i, vf));
+
+            switch (type) {
+                case STATS -> {
+                    int applied = log.getEventField(i, 3);
+                    addTo(dealtStats, slotById, log.getEventField(i, 2), applied);
+                    addTo(takenStats, slotById, log.getEventField(i, 0), applied);
+                }
+                case LASER_HIT, PHANTOM_STRIKE -> {
+                    int damage = log.getEventField(i, 2);
+                    addTo(dealtHits, slotById, log.getEventField(i, 0), damage);
+                    addTo(takenHits, slotById, log.getEventField(i, 1), damage);
+                }
+                case WIN -> {
+                    int side = log.getEventField(i, 0);
+                    BattleSide[] sides = BattleSide.values();
+                    if (side >= 0 && side < sides.length) winner = sides[side];
+                }
+                default -> {
+                    // інші події лише рахуються
+                }
+            }
+        }
+
+        boolean hasStats = counts[EventType.STATS.code()] > 0;
+        return new BattleSummary(path, fileSize, lastModifiedMs,
+                log.getMode(), log.getCreatedAt().toEpochMilli(), duration, winner,
+                participants,
+                hasStats ? dealtStats : dealtHits,
+                hasStats ? takenStats : takenHits,
+                counts, first, max);
+    }
+
+    private static void addTo(long[] totals, Map<Integer, Integer> slotById, int droidId, int amount) {
+        Integer slot = slotById.get(droidId);
+        if (slot != null) totals[slot] += amount;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public long getLastModifiedMs() {
+        return lastModifiedMs;
+    }
+
+    public BattleMode getMode() {
+        return mode;
+    }
+
+    public long getCreatedAtMs() {
+        return createdAtMs;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    /**
+     * Переможець або null, якщо бій записано не до кінця.
+     */
+    public BattleSide getWinner() {
+        return winner;
+    }
+
+    public List<DroidEntry> getParticipants() {
+        return Collections.unmodifiableList(participants);
+    }
+
+    public long getDamageDealt(int participantIndex) {
+        return damageDealt[participantIndex];
+    }
+
+    public long getDamageTaken(int participantIndex) {
+        return damageTaken[participantIndex];
+    }
+
+    public int getEventCount(EventType type) {
+        return (type.code() < eventCounts.length) ? eventCounts[type.code()] : 0;
+    }
+
+    public int getTotalEvents() {
+        int sum = 0;
+        for (int c : eventCounts) sum += c;
+        return sum;
+    }
+
+    /**
+     * Час першої події цього типу або -1, якщо такої не було.
+     */
+    public long getFirstEventMs(EventType type) {
+        return (type.code() < firstEventMs.length) ? firstEventMs[type.code()] : -1;
+    }
+
+    /**
+     * Найбільша шкода (або лікування) серед подій цього типу; 0 — якщо не було.
+     */
+    public int getMaxValue(EventType type) {
+        return (type.code() < maxValue.length) ? maxValue[type.code()] : 0;
+    }
+
+    public boolean hasDroidType(DroidType type) {
+        for (DroidEntry p : participants) {
+            if (p.getType() == type) return true;
+        }
+        return false;
+    }
+
+    public long getDamageDealtBy(DroidType type) {
+        long sum = 0;
+        for (int k = 0; k < participants.size(); k++) {
+            if (participants.get(k).getType() == type) sum += damageDealt[k];
+        }
+        return sum;
+    }
+
+    public long getDamageTakenBy(DroidType type) {
+        long sum = 0;
+        for (int k = 0; k < participants.size(); k++) {
+            if (participants.get(k).getType() == type) sum += damageTaken[k];
+        }
+        return sum;
+    }
+
+    // -------- Для серіалізації індексу --------
+
+    int[] eventCounts() {
+        return eventCounts;
+    }
+
+    long[] firstEventTimes() {
+        return firstEventMs;
+    }
+
+    int[] maxValues() {
+        return maxValue;
+    }
+}
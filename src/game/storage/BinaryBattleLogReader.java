@@ -0,0 +1,301 @@
+package game.storage;
+
+import game.battle.BattleMode;
+import game.battle.BattleSide;
+import game.droid.DroidType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Читання бінарного логу бою через memory-mapped файл.
+ *
+ * Заголовок розбирається одразу, події декодуються ліниво під час ітерації.
+ * Обірваний хвіст (бій не дописаний до кінця) не є помилкою — ітерація просто зупиняється.
+ * Знімки стану (версія 2) ітератор пропускає; їх можна забрати через drainCheckpoints().
+ */
+public class BinaryBattleLogReader implements Closeable, Iterator<BattleEvent> {
+    private ByteBuffer in;
+
+    private final BattleMode mode;
+    private final Instant createdAt;
+    private final List<DroidEntry> participants = new ArrayList<>();
+
+    private long lastTimeMs = 0;
+    private BattleEvent pending;
+
+    // Остання декодована подія
+    private long time;
+    private EventType type;
+    private final int[] values = new int[EventBuffer.MAX_FIELDS];
+    private BattleEvent custom;
+    private boolean truncated = false;
+
+    // Прочитані, але ще не забрані знімки стану (eventIndex у них ще не виставлено)
+    private final List<BattleCheckpoint> checkpoints = new ArrayList<>();
+
+    private BinaryBattleLogReader(ByteBuffer in) throws IOException {
+        this.in = in;
+        try {
+            byte[] magic = new byte[BinaryBattleLogWriter.MAGIC.length];
+            in.get(magic);
+            if (!Arrays.equals(magic, BinaryBattleLogWriter.MAGIC)) {
+                throw new IOException("Це не бінарний файл бою.");
+            }
+            int version = in.get() & 0xFF;
+            if (version < BinaryBattleLogWriter.MIN_READ_VERSION || version > BinaryBattleLogWriter.FORMAT_VERSION) {
+                throw new IOException("Непідтримувана версія бінарного формату: " + version);
+            }
+            BattleMode[] modes = BattleMode.values();
+            int modeCode = in.get() & 0xFF;
+            if (modeCode >= modes.length) throw new IOException("Некоректний режим бою у заголовку: " + modeCode);
+            this.mode = modes[modeCode];
+            this.createdAt = Instant.ofEpochMilli(in.getLong());
+
+            int count = BinaryCodec.readVarInt(in);
+            DroidType[] types = DroidType.values();
+            BattleSide[] sides = BattleSide.values();
+            for (int i = 0; i < count; i++) {
+                int id = BinaryCodec.readVarInt(in);
+                String name = BinaryCodec.readString(in);
+                int type = in.get() & 0xFF;
+                int side = in.get() & 0xFF;
+                if (type >= types.length && type != BinaryBattleLogWriter.NO_TYPE) {
+                    throw new IOException("Некоректний тип дроїда " + type + " (id=" + id + ")");
+                }
+                if (side >= sides.length) {
+                    throw new IOException("Некоректна сторона " + side + " (id=" + id + ")");
+                }
+                participants.add(new DroidEntry(id, name,
+                        type < types.length ? types[type] : null, sides[side]));
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Обірваний заголовок бінарного файлу бою.");
+        }
+    }
+
+    public static BinaryBattleLogReader open(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("Файл бою завеликий: " + size);
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new BinaryBattleLogReader(map);
+        }
+    }
+
+    public static BattleLog read(Path path) throws IOException {
+        try (BinaryBattleLogReader r = open(path)) {
+            return r.readAll();
+        }
+    }
+
+    /**
+     * Лог з уже завантаженого (наприклад, розпакованого) вмісту файлу.
+     */
+    static BattleLog read(ByteBuffer content) throws IOException {
+        try (BinaryBattleLogReader r = new BinaryBattleLogReader(content)) {
+            return r.readAll();
+        }
+    }
+
+    public BattleMode getMode() {
+        return mode;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public List<DroidEntry> getParticipants() {
+        return Collections.unmodifiableList(participants);
+    }
+
+    /**
+     * true, якщо файл закінчився посеред події (бій записано не повністю).
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Знімки стану, що трапились до поточної позиції читання (з моменту попереднього виклику).
+     */
+    public List<BattleCheckpoint> drainCheckpoints() {
+        if (checkpoints.isEmpty()) return Collections.emptyList();
+        List<BattleCheckpoint> result = new ArrayList<>(checkpoints);
+        checkpoints.clear();
+        return result;
+    }
+
+    /**
+     * Дочитує всі (ще не прочитані) події у новий BattleLog.
+     * Відомі типи йдуть одразу у примітивний буфер логу, без проміжних обʼєктів.
+     */
+    public BattleLog readAll() {
+        BattleLog log = new BattleLog(mode, createdAt);
+        for (DroidEntry p : participants) {
+            log.addParticipant(p);
+        }
+        if (pending != null) {
+            addCheckpoints(log);
+            log.addEvent(next());
+        }
+        while (advance()) {
+            addCheckpoints(log);
+            if (custom != null) {
+                log.addEvent(custom);
+            } else {
+                log.append(time, type, values[0], values[1], values[2], values[3]);
+            }
+        }
+        addCheckpoints(log);
+        return log;
+    }
+
+    private void addCheckpoints(BattleLog log) {
+        for (BattleCheckpoint cp : checkpoints) {
+            log.addCheckpoint(cp.withEventIndex(log.getEventCount()));
+        }
+        checkpoints.clear();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pending != null) return true;
+        if (!advance()) return false;
+        pending = (custom != null) ? custom : toEvent();
+        return true;
+    }
+
+    @Override
+    public BattleEvent next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        BattleEvent e = pending;
+        pending = null;
+        return e;
+    }
+
+    /**
+     * Декодує наступну подію у поля time/type/values (або custom); false — кінець файлу.
+     */
+    private boolean advance() {
+        while (in != null && in.hasRemaining()) {
+            int start = in.position();
+            try {
+                if (decodeRecord()) return true;
+            } catch (BufferUnderflowException | IllegalStateException e) {
+                in.position(start);
+                truncated = true;
+                in = null;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Декодує запис; true — подія, false — знімок стану (відкладено у checkpoints).
+     */
+    private boolean decodeRecord() {
+        long t = lastTimeMs + BinaryCodec.unzigzag(BinaryCodec.readVarLong(in));
+        int code = in.get() & 0xFF;
+        if (code == BinaryBattleLogWriter.CHECKPOINT) {
+            checkpoints.add(decodeCheckpoint(t));
+            lastTimeMs = t;
+            return false;
+        }
+        decodeEvent(t, code);
+        return true;
+    }
+
+    private BattleCheckpoint decodeCheckpoint(long t) {
+        long damageLeft = BinaryCodec.unzigzag(BinaryCodec.readVarLong(in));
+        long damageRight = BinaryCodec.unzigzag(BinaryCodec.readVarLong(in));
+
+        int n = BinaryCodec.readVarInt(in);
+        if (n < 0 || n > in.remaining()) throw new BufferUnderflowException();
+        List<BattleCheckpoint.DroidState> droids = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            droids.add(new BattleCheckpoint.DroidState(
+                    readInt(), readInt(), readInt(), readInt(), readInt(),
+                    BinaryCodec.readVarLong(in) != 0, readInt()));
+        }
+
+        int m = BinaryCodec.readVarInt(in);
+        if (m < 0 || m > in.remaining()) throw new BufferUnderflowException();
+        List<BattleCheckpoint.ProjectileState> shots = new ArrayList<>(m);
+        for (int i = 0; i < m; i++) {
+            double x = Double.longBitsToDouble(in.getLong());
+            double y = Double.longBitsToDouble(in.getLong());
+            double vx = Double.longBitsToDouble(in.getLong());
+            double vy = Double.longBitsToDouble(in.getLong());
+            shots.add(new BattleCheckpoint.ProjectileState(x, y, vx, vy,
+                    readInt(), readInt(), BinaryCodec.readVarLong(in) != 0, readInt()));
+        }
+        return new BattleCheckpoint(t, 0, damageLeft, damageRight, droids, shots);
+    }
+
+    private int readInt() {
+        return (int) BinaryCodec.unzigzag(BinaryCodec.readVarLong(in));
+    }
+
+    private void decodeEvent(long t, int code) {
+        if (code == BinaryBattleLogWriter.CUSTOM_EVENT) {
+            String typeName = BinaryCodec.readString(in);
+            int n = BinaryCodec.readVarInt(in);
+            Map<String, String> data = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                String key = BinaryCodec.readString(in);
+                data.put(key, BinaryCodec.readString(in));
+            }
+            custom = new BattleEvent(t, typeName, data);
+            type = null;
+        } else {
+            EventType et = EventType.fromCode(code);
+            if (et == null) throw new IllegalStateException("Невідомий код події: " + code);
+            int mask = in.get() & 0xFF;
+            List<String> fields = et.getFields();
+            for (int i = 0; i < EventBuffer.MAX_FIELDS; i++) {
+                if (i < fields.size() && (mask & (1 << i)) != 0) {
+                    values[i] = (int) BinaryCodec.unzigzag(BinaryCodec.readVarLong(in));
+                } else {
+                    values[i] = (i < fields.size()) ? EventType.defaultValue(fields.get(i)) : 0;
+                }
+            }
+            custom = null;
+            type = et;
+        }
+        time = t;
+        lastTimeMs = t;
+    }
+
+    private BattleEvent toEvent() {
+        List<String> fields = type.getFields();
+        Map<String, String> data = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            data.put(fields.get(i), EventType.toText(fields.get(i), values[i]));
+        }
+        return new BattleEvent(time, type.name(), data);
+    }
+
+    @Override
+    public void close() {
+        // відображення звільнить GC; просто припиняємо читання
+        in = null;
+        pending = null;
+    }
+}
@@ -0,0 +1,262 @@
+package game.storage;
+
+import game.battle.BattleMode;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Потоковий запис бою у компактний бінарний формат.
+ *
+ * Формат (version=2; версія 1 — без знімків стану):
+ * "DBLG" | version:u8 | mode:u8 | createdAt:i64 (epoch ms)
+ * participants: varint n, далі n × (id:varint, name:string, type:u8, side:u8)
+ * events до кінця файлу:
+ *   dt:zigzag varint (від попередньої події) | code:u8
+ *   відомий тип: presence:u8 (біт на поле EventType) + значення полів zigzag varint;
+ *   поля зі значенням за замовчуванням (EventType.defaultValue) не пишуться,
+ *   при читанні відсутні поля отримують саме його
+ *   інший тип (code=0x7F): type:string, n:varint, n × (key:string, value:string)
+ *   знімок стану (code=0x7E): damageLeft, damageRight: zigzag varint,
+ *     n:varint, n × (id, hp, energy, x, y, locked, mirror: zigzag varint),
+ *     m:varint, m × (x, y, vx, vy: f64, attacker, target, hit, damage: zigzag varint)
+ *
+ * Події дописуються одразу, як відбуваються; обірваний хвіст файлу читач просто пропускає.
+ * Помилка диску під час запису через слухача (attach) не зупиняє бій: запис припиняється,
+ * а сама помилка кидається з flush()/close().
+ */
+public class BinaryBattleLogWriter implements Closeable, BattleLogListener {
+    static final byte[] MAGIC = {'D', 'B', 'L', 'G'};
+    static final int FORMAT_VERSION = 2;
+    static final int MIN_READ_VERSION = 1;
+    static final int CUSTOM_EVENT = 0x7F;
+    static final int CHECKPOINT = 0x7E;
+    static final int NO_TYPE = 0xFF;
+
+    private final OutputStream out;
+    private final BinaryCodec.Out buf = new BinaryCodec.Out();
+    private long lastTimeMs = 0;
+
+    // Лог, до якого підписано (attach), і перша помилка запису через слухача
+    private BattleLog attachedTo;
+    private IOException error;
+
+    public BinaryBattleLogWriter(Path path, BattleMode mode, Instant createdAt, List<DroidEntry> participants) throws IOException {
+        if (path == null) throw new IllegalArgumentException("path is null");
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.out = new BufferedOutputStream(Files.newOutputStream(path), 64 * 1024);
+        writeHeader(mode, createdAt, participants);
+    }
+
+    /**
+     * Запис у готовий потік (без буферизації — буферизує сам потік).
+     */
+    BinaryBattleLogWriter(OutputStream out, BattleMode mode, Instant createdAt, List<DroidEntry> participants) throws IOException {
+        this.out = out;
+        writeHeader(mode, createdAt, participants);
+    }
+
+    /**
+     * Відкриває файл для логу, який ще наповнюється: пише заголовок і вже наявні події,
+     * а далі дописує нові через слухача BattleLog.
+     */
+    public static BinaryBattleLogWriter attach(BattleLog log, Path path) throws IOException {
+        BinaryBattleLogWriter w = new BinaryBattleLogWriter(path, log.getMode(), log.getCreatedAt(), log.getParticipants());
+        try {
+            w.appendAll(log);
+        } catch (IOException e) {
+            w.out.close();
+            throw e;
+        }
+        w.attachedTo = log;
+        log.addListener(w);
+        return w;
+    }
+
+    /**
+     * Записує весь лог за один раз.
+     */
+    public static void write(BattleLog log, Path path) throws IOException {
+        if (BattleLogFormat.isCompressedName(path)) {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (OutputStream out = new BlockGzipOutputStream(Files.newOutputStream(path))) {
+                new BinaryBattleLogWriter(out, log.getMode(), log.getCreatedAt(), log.getParticipants()).appendAll(log);
+            }
+            return;
+        }
+        try (BinaryBattleLogWriter w = new BinaryBattleLogWriter(path, log.getMode(), log.getCreatedAt(), log.getParticipants())) {
+            w.appendAll(log);
+        }
+    }
+
+    // Події разом зі знімками стану, кожен знімок — одразу після врахованих ним подій
+    void appendAll(BattleLog log) throws IOException {
+        List<BattleCheckpoint> checkpoints = log.getCheckpoints();
+        int c = 0;
+        for (int i = 0; i < log.getEventCount(); i++) {
+            while (c < checkpoints.size() && checkpoints.get(c).eventIndex() <= i) {
+                append(checkpoints.get(c++));
+            }
+            append(log, i);
+        }
+        while (c < checkpoints.size()) {
+            append(checkpoints.get(c++));
+        }
+    }
+
+    private void writeHeader(BattleMode mode, Instant createdAt, List<DroidEntry> participants) throws IOException {
+        buf.reset();
+        for (byte b : MAGIC) buf.writeByte(b);
+        buf.writeByte(FORMAT_VERSION);
+        buf.writeByte(mode != null ? mode.ordinal() : 0);
+        buf.writeLong(createdAt != null ? createdAt.toEpochMilli() : 0L);
+        buf.writeVarLong(participants.size());
+        for (DroidEntry p : participants) {
+            buf.writeVarLong(p.getId());
+            buf.writeString(p.getName());
+            buf.writeByte(p.getType() != null ? p.getType().ordinal() : NO_TYPE);
+            buf.writeByte(p.getSide().ordinal());
+        }
+        out.write(buf.array(), 0, buf.length());
+    }
+
+    /**
+     * Дописує подію з буфера логу (відомі типи — без створення обʼєктів).
+     */
+    public void append(BattleLog log, int index) throws IOException {
+        EventType type = log.getEventType(index);
+        if (type == null) {
+            append(log.getEvent(index));
+            return;
+        }
+
+        buf.reset();
+        writeTime(log.getEventTime(index));
+        List<String> fields = type.getFields();
+        int n = fields.size();
+        int mask = 0;
+        for (int k = 0; k < n; k++) {
+            if (log.getEventField(index, k) != EventType.defaultValue(fields.get(k))) mask |= 1 << k;
+        }
+        buf.writeByte(type.code());
+        buf.writeByte(mask);
+        for (int k = 0; k < n; k++) {
+            if ((mask & (1 << k)) != 0) {
+                buf.writeVarLong(BinaryCodec.zigzag(log.getEventField(index, k)));
+            }
+        }
+        out.write(buf.array(), 0, buf.length());
+    }
+
+    /**
+     * Дописує подію у вигляді Map (довільного типу).
+     */
+    public void append(BattleEvent e) throws IOException {
+        buf.reset();
+        writeTime(e.getTimeMs());
+        buf.writeByte(CUSTOM_EVENT);
+        buf.writeString(e.getType());
+        Map<String, String> data = e.getData();
+        buf.writeVarLong(data.size());
+        for (Map.Entry<String, String> kv : data.entrySet()) {
+            buf.writeString(kv.getKey());
+            buf.writeString(kv.getValue());
+        }
+        out.write(buf.array(), 0, buf.length());
+    }
+
+    /**
+     * Дописує знімок стану.
+     */
+    public void append(BattleCheckpoint cp) throws IOException {
+        buf.reset();
+        writeTime(cp.timeMs());
+        buf.writeByte(CHECKPOINT);
+        buf.writeVarLong(BinaryCodec.zigzag(cp.damageLeft()));
+        buf.writeVarLong(BinaryCodec.zigzag(cp.damageRight()));
+        buf.writeVarLong(cp.droids().size());
+        for (BattleCheckpoint.DroidState d : cp.droids()) {
+            buf.writeVarLong(BinaryCodec.zigzag(d.id()));
+            buf.writeVarLong(BinaryCodec.zigzag(d.health()));
+            buf.writeVarLong(BinaryCodec.zigzag(d.energy()));
+            buf.writeVarLong(BinaryCodec.zigzag(d.x()));
+            buf.writeVarLong(BinaryCodec.zigzag(d.y()));
+            buf.writeVarLong(d.locked() ? 1 : 0);
+            buf.writeVarLong(BinaryCodec.zigzag(d.mirrorOverride()));
+        }
+        buf.writeVarLong(cp.projectiles().size());
+        for (BattleCheckpoint.ProjectileState p : cp.projectiles()) {
+            buf.writeLong(Double.doubleToLongBits(p.x()));
+            buf.writeLong(Double.doubleToLongBits(p.y()));
+            buf.writeLong(Double.doubleToLongBits(p.vx()));
+            buf.writeLong(Double.doubleToLongBits(p.vy()));
+            buf.writeVarLong(BinaryCodec.zigzag(p.attackerId()));
+            buf.writeVarLong(BinaryCodec.zigzag(p.targetId()));
+            buf.writeVarLong(p.willHit() ? 1 : 0);
+            buf.writeVarLong(BinaryCodec.zigzag(p.damage()));
+        }
+        out.write(buf.array(), 0, buf.length());
+    }
+
+    private void writeTime(long timeMs) {
+        buf.writeVarLong(BinaryCodec.zigzag(timeMs - lastTimeMs));
+        lastTimeMs = timeMs;
+    }
+
+    @Override
+    public void onEvent(BattleLog log, int index) {
+        if (error != null) return;
+        try {
+            append(log, index);
+        } catch (IOException ex) {
+            // бій не зупиняємо через диск — запис припиняється, помилку віддасть flush()/close()
+            error = ex;
+        }
+    }
+
+    @Override
+    public void onCheckpoint(BattleLog log, BattleCheckpoint checkpoint) {
+        if (error != null) return;
+        try {
+            append(checkpoint);
+        } catch (IOException ex) {
+            error = ex;
+        }
+    }
+
+    public void flush() throws IOException {
+        if (error != null) throw error;
+        out.flush();
+    }
+
+    /**
+     * Відписується від логу (якщо attach) і закриває файл; кидає першу помилку запису, якщо була.
+     */
+    @Override
+    public void close() throws IOException {
+        if (attachedTo != null) {
+            attachedTo.removeListener(this);
+            attachedTo = null;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            if (error == null) throw e;
+            error.addSuppressed(e);
+        }
+        if (error != null) throw error;
+    }
+}
@@ -0,0 +1,207 @@
+package game.storage;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Читання файлу, стисненого BlockGzipOutputStream, по одному блоку.
+ *
+ * Позиція задається «віртуальним зсувом» (як у BGZF): (початок блоку у файлі << 16) | зсув у блоці,
+ * тож seek() розпаковує лише один потрібний блок. Обірваний останній блок вважається кінцем даних.
+ */
+public class BlockGzipInputStream extends InputStream {
+    private final FileChannel channel;
+    private final long fileSize;
+
+    private final ByteBuffer header = ByteBuffer.allocate(BlockGzipOutputStream.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final byte[] compressed = new byte[BlockGzipOutputStream.MAX_BLOCK_SIZE];
+    private final byte[] data = new byte[BlockGzipOutputStream.MAX_BLOCK_SIZE];
+    private final Inflater inflater = new Inflater(true);
+    private final CRC32 crc = new CRC32();
+
+    private long blockStart = -1;
+    private long nextBlock;
+    private int blockLen;
+    private int pos;
+    private boolean truncated;
+
+    private BlockGzipInputStream(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.fileSize = channel.size();
+    }
+
+    public static BlockGzipInputStream open(Path path) throws IOException {
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            BlockGzipInputStream in = new BlockGzipInputStream(ch);
+            if (in.fileSize > 0) in.loadBlock(0);
+            return in;
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Розпакований вміст gzip-файлу: блоковий — через BlockGzipInputStream, звичайний — через GZIPInputStream.
+     */
+    public static InputStream openAny(Path path) throws IOException {
+        if (isBlockGzip(path)) return open(path);
+        return new GZIPInputStream(new BufferedInputStream(Files.newInputStream(path)), 64 * 1024);
+    }
+
+    /**
+     * Чи має перший член gzip поле BC (тобто чи можна читати по блоках).
+     */
+    public static boolean isBlockGzip(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] h = in.readNBytes(BlockGzipOutputStream.HEADER_SIZE);
+            return h.length == BlockGzipOutputStream.HEADER_SIZE
+                    && (h[0] & 0xFF) == 0x1f && (h[1] & 0xFF) == 0x8b && h[2] == 8 && (h[3] & 4) != 0
+                    && h[10] == 6 && h[11] == 0 && h[12] == 'B' && h[13] == 'C' && h[14] == 2 && h[15] == 0;
+        }
+    }
+
+    /**
+     * Поточна позиція як віртуальний зсув.
+     */
+    public long virtualOffset() {
+        if (pos == blockLen && nextBlock < fileSize && blockLen > 0) {
+            // кінець блоку — те саме, що початок наступного
+            return nextBlock << 16;
+        }
+        return (blockStart << 16) | pos;
+    }
+
+    public void seek(long virtualOffset) throws IOException {
+        long start = virtualOffset >>> 16;
+        int offset = (int) (virtualOffset & 0xFFFF);
+        if (start != blockStart) {
+            if (start >= fileSize) throw new IOException("Зсув за межами файлу: " + virtualOffset);
+            loadBlock(start);
+            if (truncated) throw new IOException("Блок пошкоджено: " + start);
+        }
+        if (offset > blockLen) throw new IOException("Некоректний зсув у блоці: " + virtualOffset);
+        pos = offset;
+    }
+
+    /**
+     * true, якщо останній блок файлу обірваний (файл дописано не до кінця).
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureData()) return -1;
+        return data[pos++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        if (!ensureData()) return -1;
+        int n = Math.min(len, blockLen - pos);
+        System.arraycopy(data, pos, b, off, n);
+        pos += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return blockLen - pos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+
+    private boolean ensureData() throws IOException {
+        while (pos >= blockLen) {
+            if (truncated || nextBlock >= fileSize) return false;
+            loadBlock(nextBlock);
+        }
+        return true;
+    }
+
+    private void loadBlock(long at) throws IOException {
+        blockLen = 0;
+        pos = 0;
+        truncated = false;
+
+        header.clear();
+        if (readFully(header, at) < BlockGzipOutputStream.HEADER_SIZE) {
+            markTruncated(at);
+            return;
+        }
+        header.flip();
+        if ((header.get(0) & 0xFF) != 0x1f || (header.get(1) & 0xFF) != 0x8b || header.get(2) != 8
+                || (header.get(3) & 4) == 0 || header.get(12) != 'B' || header.get(13) != 'C') {
+            throw new IOException("Пошкоджений блок gzip на позиції " + at);
+        }
+        int size = (header.getShort(16) & 0xFFFF) + 1;
+        int body = size - BlockGzipOutputStream.HEADER_SIZE;
+        if (body < BlockGzipOutputStream.FOOTER_SIZE) {
+            throw new IOException("Пошкоджений блок gzip на позиції " + at);
+        }
+
+        ByteBuffer rest = ByteBuffer.wrap(compressed, 0, body);
+        if (readFully(rest, at + BlockGzipOutputStream.HEADER_SIZE) < body) {
+            markTruncated(at);
+            return;
+        }
+
+        int deflated = body - BlockGzipOutputStream.FOOTER_SIZE;
+        ByteBuffer footer = ByteBuffer.wrap(compressed, deflated, BlockGzipOutputStream.FOOTER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        int expectedCrc = footer.getInt();
+        int expectedLen = footer.getInt();
+
+        inflater.reset();
+        inflater.setInput(compressed, 0, deflated);
+        int len;
+        try {
+            len = inflater.inflate(data, 0, data.length);
+        } catch (DataFormatException e) {
+            throw new IOException("Пошкоджені стиснені дані на позиції " + at);
+        }
+        crc.reset();
+        crc.update(data, 0, len);
+        if (len != expectedLen || (int) crc.getValue() != expectedCrc) {
+            throw new IOException("Невідповідність контрольної суми блоку на позиції " + at);
+        }
+
+        blockStart = at;
+        nextBlock = at + size;
+        blockLen = len;
+    }
+
+    private void markTruncated(long at) {
+        truncated = true;
+        blockStart = at;
+        nextBlock = fileSize;
+    }
+
+    private int readFully(ByteBuffer buf, long at) throws IOException {
+        int total = 0;
+        while (buf.hasRemaining()) {
+            int n = channel.read(buf, at + total);
+            if (n < 0) break;
+            total += n;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,157 @@
+package game.storage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Стиснення блоками (як BGZF): кожні до ~64 КБ даних — окремий повний gzip-член
+ * з полем «BC» (розмір блоку) у заголовку, у кінці — порожній блок-маркер.
+ *
+ * Результат — звичайний багатачленний gzip (читається gunzip і GZIPInputStream),
+ * але BlockGzipInputStream може читати його по блоках і переходити до будь-якого блоку.
+ */
+public class BlockGzipOutputStream extends OutputStream {
+    // Найбільший блок у файлі (разом із заголовком) і скільки даних кладемо в один блок
+    static final int MAX_BLOCK_SIZE = 64 * 1024;
+    static final int MAX_INPUT = 0xFF00;
+    static final int HEADER_SIZE = 18;
+    static final int FOOTER_SIZE = 8;
+
+    private final OutputStream out;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+
+    private final byte[] input = new byte[MAX_INPUT];
+    private int inputLen;
+    private final byte[] block = new byte[MAX_BLOCK_SIZE];
+
+    private boolean closed;
+
+    public BlockGzipOutputStream(OutputStream out) {
+        this(out, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    public BlockGzipOutputStream(OutputStream out, int level) {
+        if (out == null) throw new IllegalArgumentException("out is null");
+        this.out = out;
+        this.deflater = new Deflater(level, true);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (inputLen == MAX_INPUT) flushBlock();
+        input[inputLen++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            if (inputLen == MAX_INPUT) flushBlock();
+            int n = Math.min(len, MAX_INPUT - inputLen);
+            System.arraycopy(b, off, input, inputLen, n);
+            inputLen += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Закриває поточний блок (навіть неповний) і скидає його у потік.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        if (inputLen > 0) flushBlock();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        try {
+            if (inputLen > 0) flushBlock();
+            writeBlock(input, 0, 0);
+            out.flush();
+        } finally {
+            closed = true;
+            deflater.end();
+            out.close();
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        int off = 0;
+        while (off < inputLen) {
+            off += writeBlock(input, off, inputLen - off);
+        }
+        inputLen = 0;
+    }
+
+    /**
+     * Пише один блок з початку даних; повертає, скільки байтів увійшло.
+     * Якщо стиснене не влазить у блок (нестисненні дані), бере удвічі менше.
+     */
+    private int writeBlock(byte[] data, int off, int len) throws IOException {
+        int take = len;
+        while (true) {
+            deflater.reset();
+            deflater.setInput(data, off, take);
+            deflater.finish();
+            int room = MAX_BLOCK_SIZE - HEADER_SIZE - FOOTER_SIZE;
+            int compressed = 0;
+            while (!deflater.finished() && compressed < room) {
+                compressed += deflater.deflate(block, HEADER_SIZE + compressed, room - compressed);
+            }
+            if (deflater.finished()) {
+                emit(data, off, take, compressed);
+                return take;
+            }
+            if (take <= 1) throw new IOException("Не вдалося стиснути блок");
+            take /= 2;
+        }
+    }
+
+    private void emit(byte[] data, int off, int len, int compressed) throws IOException {
+        int size = HEADER_SIZE + compressed + FOOTER_SIZE;
+
+        // gzip-заголовок з додатковим полем BC = розмір блоку - 1
+        block[0] = 0x1f;
+        block[1] = (byte) 0x8b;
+        block[2] = 8;           // deflate
+        block[3] = 4;           // FEXTRA
+        block[4] = block[5] = block[6] = block[7] = 0; // MTIME
+        block[8] = 0;           // XFL
+        block[9] = (byte) 0xff; // OS: невідома
+        putShort(10, 6);        // XLEN
+        block[12] = 'B';
+        block[13] = 'C';
+        putShort(14, 2);
+        putShort(16, size - 1);
+
+        crc.reset();
+        crc.update(data, off, len);
+        int footer = HEADER_SIZE + compressed;
+        putInt(footer, (int) crc.getValue());
+        putInt(footer + 4, len);
+
+        out.write(block, 0, size);
+    }
+
+    private void putShort(int at, int v) {
+        block[at] = (byte) v;
+        block[at + 1] = (byte) (v >>> 8);
+    }
+
+    private void putInt(int at, int v) {
+        putShort(at, v);
+        putShort(at + 2, v >>> 16);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) throw new IOException("Потік закрито");
+    }
+}
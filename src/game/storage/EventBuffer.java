@@ -0,0 +1,90 @@
+package game.storage;
+
+import java.util.Arrays;
+
+/**
+ * Події бою у примітивних масивах: час, код типу і до 4 цілих полів на подію.
+ * Масиви ростуть удвічі й перевикористовуються після clear(), тож додавання
+ * події не створює обʼєктів.
+ */
+final class EventBuffer {
+    static final int MAX_FIELDS = 4;
+
+    /**
+     * Код «довільної» події: field0 — індекс у списку таких подій BattleLog.
+     */
+    static final byte CUSTOM = -1;
+
+    private long[] times = new long[256];
+    private byte[] types = new byte[256];
+    private int[] fields = new int[256 * MAX_FIELDS];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    long time(int i) {
+        return times[i];
+    }
+
+    byte type(int i) {
+        return types[i];
+    }
+
+    int field(int i, int k) {
+        return fields[i * MAX_FIELDS + k];
+    }
+
+    /**
+     * Додає подію з дотриманням порядку за часом; повертає її індекс.
+     * Двигун пише події хронологічно, тож зсув масивів — лише рідкісний випадок.
+     */
+    int append(long t, byte type, int a, int b, int c, int d) {
+        ensureCapacity(size + 1);
+
+        int pos = size;
+        if (size > 0 && t < times[size - 1]) {
+            pos = upperBound(t);
+            System.arraycopy(times, pos, times, pos + 1, size - pos);
+            System.arraycopy(types, pos, types, pos + 1, size - pos);
+            System.arraycopy(fields, pos * MAX_FIELDS, fields, (pos + 1) * MAX_FIELDS, (size - pos) * MAX_FIELDS);
+        }
+
+        times[pos] = t;
+        types[pos] = type;
+        int f = pos * MAX_FIELDS;
+        fields[f] = a;
+        fields[f + 1] = b;
+        fields[f + 2] = c;
+        fields[f + 3] = d;
+        size++;
+        return pos;
+    }
+
+    /**
+     * Індекс першої події з часом > t.
+     */
+    int upperBound(long t) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (times[mid] <= t) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= times.length) return;
+        int cap = Math.max(needed, times.length * 2);
+        times = Arrays.copyOf(times, cap);
+        types = Arrays.copyOf(types, cap);
+        fields = Arrays.copyOf(fields, cap * MAX_FIELDS);
+    }
+}
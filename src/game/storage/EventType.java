@@ -0,0 +1,118 @@
+package game.storage;
+
+import game.battle.BattleSide;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Відомі типи подій бою та їх поля у фіксованому порядку.
+ *
+ * Порядок елементів — це код типу у бінарному форматі, тому нові типи
+ * додаються тільки в кінець.
+ */
+public enum EventType {
+    START(),
+    TARGET_SET("attacker", "target"),
+    LASER_SHOT("attacker", "target", "hit", "damage"),
+    LASER_HIT("attacker", "target", "damage", "targetHealth"),
+    HEAL_START("healer", "target"),
+    HEAL_APPLY("healer", "target", "amount", "targetHealth"),
+    PHANTOM_APPEAR("phantom", "target"),
+    PHANTOM_STRIKE("phantom", "target", "damage"),
+    PHANTOM_RETURN("phantom"),
+    DROID_DEFEATED("id"),
+    STATS("target", "targetHealth", "attacker", "damageApplied"),
+    WIN("winner");
+
+    private static final EventType[] VALUES = values();
+
+    private final List<String> fields;
+
+    EventType(String... fields) {
+        this.fields = List.of(fields);
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public int code() {
+        return ordinal();
+    }
+
+    public static EventType fromCode(int code) {
+        return (code >= 0 && code < VALUES.length) ? VALUES[code] : null;
+    }
+
+    public static EventType fromName(String name) {
+        if (name == null) return null;
+        for (EventType t : VALUES) {
+            if (t.name().equals(name)) return t;
+        }
+        return null;
+    }
+
+    /**
+     * Розбирає текстові поля у values (порядок — getFields()). Відсутні поля отримують
+     * значення за замовчуванням; false, якщо є зайві ключі або нечислові значення.
+     */
+    boolean parseFields(Map<String, String> data, int[] values) {
+        int matched = 0;
+        for (int i = 0; i < fields.size(); i++) {
+            String key = fields.get(i);
+            String v = data.get(key);
+            if (v == null) {
+                values[i] = defaultValue(key);
+                continue;
+            }
+            try {
+                values[i] = toInt(key, v);
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+            matched++;
+        }
+        return matched == data.size();
+    }
+
+    /**
+     * Значення відсутнього поля (як раніше у реплеї: hit=true, решта 0).
+     */
+    static int defaultValue(String field) {
+        return "hit".equals(field) ? 1 : 0;
+    }
+
+    /**
+     * Текстове значення поля -> число (boolean як 0/1, сторона як ordinal).
+     */
+    static int toInt(String field, String value) {
+        return switch (field) {
+            case "hit" -> Boolean.parseBoolean(value) ? 1 : 0;
+            case "winner" -> BattleSide.valueOf(value).ordinal();
+            default -> Integer.parseInt(value);
+        };
+    }
+
+    /**
+     * Число -> текстове значення поля (обернене до toInt).
+     */
+    static String toText(String field, int value) {
+        return switch (field) {
+            case "hit" -> String.valueOf(value != 0);
+            case "winner" -> BattleSide.values()[value].name();
+            default -> String.valueOf(value);
+        };
+    }
+
+    /**
+     * Те саме, що toText, але одразу у StringBuilder (без проміжних рядків).
+     */
+    static void appendText(StringBuilder sb, String field, int value) {
+        switch (field) {
+            case "hit" -> sb.append(value != 0);
+            case "winner" -> sb.append(BattleSide.values()[value].name());
+            default -> sb.append(value);
+        }
+    }
+}
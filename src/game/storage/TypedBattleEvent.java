@@ -0,0 +1,78 @@
+package game.storage;
+
+import game.battle.BattleSide;
+
+/**
+ * Типізоване представлення подій бою з примітивними полями.
+ * Створюється на вимогу з буфера BattleLog (getTypedEvent).
+ */
+public sealed interface TypedBattleEvent {
+    long timeMs();
+
+    EventType type();
+
+    record Start(long timeMs) implements TypedBattleEvent {
+        public EventType type() { return EventType.START; }
+    }
+
+    record TargetSet(long timeMs, int attacker, int target) implements TypedBattleEvent {
+        public EventType type() { return EventType.TARGET_SET; }
+    }
+
+    record LaserShot(long timeMs, int attacker, int target, boolean hit, int damage) implements TypedBattleEvent {
+        public EventType type() { return EventType.LASER_SHOT; }
+    }
+
+    record LaserHit(long timeMs, int attacker, int target, int damage, int targetHealth) implements TypedBattleEvent {
+        public EventType type() { return EventType.LASER_HIT; }
+    }
+
+    record HealStart(long timeMs, int healer, int target) implements TypedBattleEvent {
+        public EventType type() { return EventType.HEAL_START; }
+    }
+
+    record HealApply(long timeMs, int healer, int target, int amount, int targetHealth) implements TypedBattleEvent {
+        public EventType type() { return EventType.HEAL_APPLY; }
+    }
+
+    record PhantomAppear(long timeMs, int phantom, int target) implements TypedBattleEvent {
+        public EventType type() { return EventType.PHANTOM_APPEAR; }
+    }
+
+    record PhantomStrike(long timeMs, int phantom, int target, int damage) implements TypedBattleEvent {
+        public EventType type() { return EventType.PHANTOM_STRIKE; }
+    }
+
+    record PhantomReturn(long timeMs, int phantom) implements TypedBattleEvent {
+        public EventType type() { return EventType.PHANTOM_RETURN; }
+    }
+
+    record DroidDefeated(long timeMs, int id) implements TypedBattleEvent {
+        public EventType type() { return EventType.DROID_DEFEATED; }
+    }
+
+    record Stats(long timeMs, int target, int targetHealth, int attacker, int damageApplied) implements TypedBattleEvent {
+        public EventType type() { return EventType.STATS; }
+    }
+
+    record Win(long timeMs, BattleSide winner) implements TypedBattleEvent {
+        public EventType type() { return EventType.WIN; }
+    }
+
+    static TypedBattleEvent of(long t, EventType type, int a, int b, int c, int d) {
+        return switch (type) {
+            case START -> new Start(t);
+            case TARGET_SET -> new TargetSet(t, a, b);
+            case LASER_SHOT -> new LaserShot(t, a, b, c != 0, d);
+            case LASER_HIT -> new LaserHit(t, a, b, c, d);
+            case HEAL_START -> new HealStart(t, a, b);
+            case HEAL_APPLY -> new HealApply(t, a, b, c, d);
+            case PHANTOM_APPEAR -> new PhantomAppear(t, a, b);
+            case PHANTOM_STRIKE -> new PhantomStrike(t, a, b, c);
+            case PHANTOM_RETURN -> new PhantomReturn(t, a);
+            case DROID_DEFEATED -> new DroidDefeated(t, a);
+            case STATS -> new Stats(t, a, b, c, d);
+            case WIN -> new Win(t, BattleSide.values()[a]);
+        };
+    }
+}
@@ -1,6 +1,6 @@
 package game.ui;
 
-import game.droid.Droid;
+import game.droid.DroidBlueprint;
 import game.droid.DroidRepository;
 
 import javax.swing.*;
@@ -13,9 +13,9 @@ public final class DroidSelection {
     }
 
     /**
-     * Показує список дроїдів і просить ввести id. Повертає Droid або null (cancel).
+     * Показує список дроїдів і просить ввести id. Повертає опис дроїда або null (cancel).
      */
-    public static Droid selectById(Component parent, DroidRepository repo, String title, Set<Integer> excluded) {
+    public static DroidBlueprint selectById(Component parent, DroidRepository repo, String title, Set<Integer> excluded) {
         if (repo == null || repo.size() == 0) {
             JOptionPane.showMessageDialog(parent, "Дроїдів немає.");
             return null;
@@ -47,7 +47,7 @@ public final class DroidSelection {
                 continue;
             }
 
-            Droid d = repo.findById(id);
+            DroidBlueprint d = repo.findById(id);
             if (d == null) {
                 JOptionPane.showMessageDialog(parent, "Дроїд з таким id не знайдений.");
                 continue;
@@ -4,12 +4,43 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.imageio.ImageIO;
 
+/**
+ * Завантаження спрайтів зі спільним кешем на весь процес.
+ *
+ * Масштабовані кадри кешуються за (шлях, розмір), тож кожен файл читається й
+ * масштабується один раз, скільки б дроїдів не створювалось. Кеш потокобезпечний.
+ * Зображення зі спільного кешу не можна змінювати.
+ *
+ * Без зображень (пакетна симуляція, -Dgame.sprites=off): loadScaled повертає
+ * порожній кадр того ж розміру, тож геометрія бою не змінюється.
+ */
 public final class SpriteLoader {
 
     private SpriteLoader() {}
 
+    private static final Map<String, Image> SCALED = new ConcurrentHashMap<>();
+    private static final Map<String, Image> PLACEHOLDERS = new ConcurrentHashMap<>();
+    private static final Map<Long, Image> BLANKS = new ConcurrentHashMap<>();
+    // Віддзеркалені копії кадрів (ключ — сам кадр, порівняння за посиланням)
+    private static final Map<Image, Image> MIRRORED = new ConcurrentHashMap<>();
+
+    private static volatile boolean imagesEnabled = !"off".equalsIgnoreCase(System.getProperty("game.sprites"));
+
+    /**
+     * Вмикає/вимикає читання файлів зображень (для headless-режиму).
+     */
+    public static void setImagesEnabled(boolean enabled) {
+        imagesEnabled = enabled;
+    }
+
+    public static boolean isImagesEnabled() {
+        return imagesEnabled;
+    }
+
     public static Image load(String path) {
         try {
             return ImageIO.read(new File(path));
@@ -28,19 +59,88 @@ public final class SpriteLoader {
     }
 
     /**
-     * Завантажує зображення та масштабує його під потрібний розмір.
+     * Завантажує зображення та масштабує його під потрібний розмір (з кешу, якщо вже було).
      */
     public static Image loadScaled(String path, int targetW, int targetH) {
-        Image img = load(path);
         int w = Math.max(1, targetW);
         int h = Math.max(1, targetH);
+        if (!imagesEnabled) {
+            return blank(w, h);
+        }
+        return SCALED.computeIfAbsent(path + "@" + w + "x" + h, k -> readScaled(path, w, h));
+    }
+
+    /**
+     * Завчасно завантажує кадри в кеш (наприклад, перед масовим створенням дроїдів).
+     */
+    public static void preload(int targetW, int targetH, String... paths) {
+        for (String path : paths) {
+            loadScaled(path, targetW, targetH);
+        }
+    }
+
+    /**
+     * Скидає кеш (наприклад, після заміни файлів спрайтів).
+     */
+    public static void clearCache() {
+        SCALED.clear();
+        PLACEHOLDERS.clear();
+        BLANKS.clear();
+        MIRRORED.clear();
+    }
+
+    /**
+     * Горизонтально віддзеркалений кадр (один раз на кадр), щоб не малювати
+     * з відʼємною шириною — такий blit іде повільним шляхом Java2D.
+     */
+    public static Image mirrored(Image frame) {
+        if (frame == null || !imagesEnabled) return frame;
+        return MIRRORED.computeIfAbsent(frame, SpriteLoader::flipHorizontally);
+    }
 
+    public static Image[] mirrored(Image[] frames) {
+        Image[] result = new Image[frames.length];
+        for (int i = 0; i < frames.length; i++) {
+            result[i] = mirrored(frames[i]);
+        }
+        return result;
+    }
+
+    private static Image flipHorizontally(Image frame) {
+        int w = Math.max(1, frame.getWidth(null));
+        int h = Math.max(1, frame.getHeight(null));
+        BufferedImage copy = compatibleImage(w, h);
+        Graphics2D g2 = copy.createGraphics();
+        g2.drawImage(frame, w, 0, -w, h, null);
+        g2.dispose();
+        return copy;
+    }
+
+    /**
+     * Зображення у форматі екрана (з прозорістю) — такі кадри Java2D малює апаратно.
+     * Без дисплея — звичайний ARGB.
+     */
+    private static BufferedImage compatibleImage(int w, int h) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return gc.createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    public static int cachedCount() {
+        return SCALED.size();
+    }
+
+    private static Image readScaled(String path, int w, int h) {
+        Image img = load(path);
         if (img == null) {
             return placeholder(w, h, shortName(path));
         }
 
         Image scaled = img.getScaledInstance(w, h, Image.SCALE_SMOOTH);
-        BufferedImage copy = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage copy = compatibleImage(w, h);
         Graphics2D g2 = copy.createGraphics();
         g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
         g2.drawImage(scaled, 0, 0, null);
@@ -48,10 +148,31 @@ public final class SpriteLoader {
         return copy;
     }
 
+    // Прозорий кадр потрібного розміру (один на розмір)
+    private static Image blank(int w, int h) {
+        return BLANKS.computeIfAbsent(((long) w << 32) | h,
+                k -> compatibleImage(w, h));
+    }
+
+    /**
+     * Спільна заглушка для відсутніх кадрів дроїда (одна на процес).
+     */
+    public static Image missingFrame() {
+        return placeholder(96, 96, "NO_FRAME");
+    }
+
     public static Image placeholder(int w, int h, String label) {
         int width = Math.max(16, w);
         int height = Math.max(16, h);
-        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        String text = (label == null) ? "MISSING" : label;
+        // без зображень — порожній кадр, у кеш заглушок не потрапляє
+        if (!imagesEnabled) return blank(width, height);
+        return PLACEHOLDERS.computeIfAbsent(width + "x" + height + ":" + text,
+                k -> drawPlaceholder(width, height, text));
+    }
+
+    private static Image drawPlaceholder(int width, int height, String text) {
+        BufferedImage img = compatibleImage(width, height);
         Graphics2D g = img.createGraphics();
 
         g.setColor(new Color(30, 30, 30));
@@ -62,7 +183,6 @@ public final class SpriteLoader {
 
         g.setFont(new Font("Arial", Font.BOLD, 12));
         g.setColor(Color.WHITE);
-        String text = (label == null) ? "MISSING" : label;
         g.drawString(text, 6, Math.min(18, height - 6));
 
         g.dispose();
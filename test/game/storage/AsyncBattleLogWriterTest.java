@@ -0,0 +1,103 @@
+package game.storage;
+
+import game.battle.BattleEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncBattleLogWriterTest {
+    @TempDir
+    Path dir;
+
+    /**
+     * Пише бій через AsyncBattleLogWriter у target і перевіряє, що збережений файл відтворює лог.
+     */
+    private void commitAndCompare(String targetName, AsyncBattleLogWriter.FsyncPolicy policy) throws Exception {
+        BattleEngine engine = TestBattles.engine(targetName.length());
+        Path part = dir.resolve("spool").resolve("battle" + AsyncBattleLogWriter.PART_EXTENSION);
+        AsyncBattleLogWriter writer = AsyncBattleLogWriter.attach(engine.getBattleLog(), part, policy, 5);
+        TestBattles.runToEnd(engine);
+
+        Path target = dir.resolve("saved").resolve(targetName);
+        Path saved = writer.commit(target).get(10, TimeUnit.SECONDS);
+
+        assertEquals(target, saved);
+        assertFalse(Files.exists(part));
+        assertEquals(TestBattles.dump(engine.getBattleLog()), TestBattles.dump(BattleLogIO.read(saved)));
+    }
+
+    @Test
+    void commitBinary() throws Exception {
+        commitAndCompare("battle" + BattleLogFormat.BINARY_EXTENSION, AsyncBattleLogWriter.FsyncPolicy.ON_FINISH);
+    }
+
+    @Test
+    void commitBinaryWithIntervalFsync() throws Exception {
+        commitAndCompare("battle-interval" + BattleLogFormat.BINARY_EXTENSION, AsyncBattleLogWriter.FsyncPolicy.INTERVAL);
+    }
+
+    @Test
+    void commitConvertsToText() throws Exception {
+        commitAndCompare("battle.txt", AsyncBattleLogWriter.FsyncPolicy.NONE);
+    }
+
+    @Test
+    void commitConvertsToCompressedText() throws Exception {
+        commitAndCompare("battle.txt" + BattleLogFormat.GZIP_EXTENSION, AsyncBattleLogWriter.FsyncPolicy.ON_FINISH);
+    }
+
+    @Test
+    void commitCompressesBinary() throws Exception {
+        commitAndCompare("battle" + BattleLogFormat.BINARY_EXTENSION + BattleLogFormat.GZIP_EXTENSION,
+                AsyncBattleLogWriter.FsyncPolicy.ON_FINISH);
+    }
+
+    @Test
+    void commitOfCompressedTargetWritesBlockGzip() throws Exception {
+        String name = "block.txt" + BattleLogFormat.GZIP_EXTENSION;
+        commitAndCompare(name, AsyncBattleLogWriter.FsyncPolicy.NONE);
+        assertTrue(BlockGzipInputStream.isBlockGzip(dir.resolve("saved").resolve(name)));
+    }
+
+    @Test
+    void discardDeletesPartFile() throws Exception {
+        BattleEngine engine = TestBattles.engine(8);
+        Path part = dir.resolve("battle" + AsyncBattleLogWriter.PART_EXTENSION);
+        AsyncBattleLogWriter writer = AsyncBattleLogWriter.attach(engine.getBattleLog(), part,
+                AsyncBattleLogWriter.FsyncPolicy.ON_FINISH, 0);
+        for (int i = 0; i < 200 && !engine.isFinished(); i++) {
+            engine.update(16);
+        }
+        assertTrue(Files.exists(part));
+
+        assertNull(writer.discard().get(10, TimeUnit.SECONDS));
+        assertFalse(Files.exists(part));
+
+        // після discard запис відʼєднано: подальші події лог не ламають і нікуди не пишуться
+        TestBattles.runToEnd(engine);
+        assertFalse(Files.exists(part));
+    }
+
+    @Test
+    void secondFinishKeepsCommittedFile() throws Exception {
+        BattleEngine engine = TestBattles.engine(9);
+        Path part = dir.resolve("battle" + BattleLogFormat.BINARY_EXTENSION + AsyncBattleLogWriter.PART_EXTENSION);
+        AsyncBattleLogWriter writer = AsyncBattleLogWriter.attach(engine.getBattleLog(), part,
+                AsyncBattleLogWriter.FsyncPolicy.ON_FINISH, 0);
+        TestBattles.runToEnd(engine);
+        Path target = dir.resolve("battle" + BattleLogFormat.BINARY_EXTENSION);
+        writer.commit(target).get(10, TimeUnit.SECONDS);
+
+        // другий commit/discard нічого не змінює
+        assertEquals(target, writer.discard().get(10, TimeUnit.SECONDS));
+        assertTrue(Files.exists(target));
+    }
+}
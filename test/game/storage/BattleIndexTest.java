@@ -0,0 +1,140 @@
+package game.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BattleIndexTest {
+    @TempDir
+    Path dir;
+
+    private Path battles() throws IOException {
+        Path root = dir.resolve("battles");
+        BattleLogIO.write(TestBattles.finishedLog(1), root.resolve("a.txt"));
+        BattleLogIO.write(TestBattles.finishedLog(2), root.resolve("b" + BattleLogFormat.BINARY_EXTENSION));
+        BattleLogIO.write(TestBattles.finishedLog(3), root.resolve("old").resolve("c.txt" + BattleLogFormat.GZIP_EXTENSION));
+        Files.writeString(root.resolve("notes.md"), "не бій");
+        return root;
+    }
+
+    private static String describe(BattleSummary s) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(s.getPath()).append(' ').append(s.getFileSize()).append(' ').append(s.getLastModifiedMs())
+                .append(' ').append(s.getMode()).append(' ').append(s.getCreatedAtMs())
+                .append(' ').append(s.getDurationMs()).append(' ').append(s.getWinner())
+                .append(' ').append(s.getTotalEvents());
+        for (int i = 0; i < s.getParticipants().size(); i++) {
+            DroidEntry p = s.getParticipants().get(i);
+            sb.append(" [").append(p.getId()).append(' ').append(p.getName()).append(' ').append(p.getType())
+                    .append(' ').append(p.getSide()).append(' ').append(s.getDamageDealt(i))
+                    .append(' ').append(s.getDamageTaken(i)).append(']');
+        }
+        for (EventType type : EventType.values()) {
+            sb.append(' ').append(s.getEventCount(type)).append('/').append(s.getFirstEventMs(type))
+                    .append('/').append(s.getMaxValue(type));
+        }
+        return sb.toString();
+    }
+
+    private static String describe(BattleIndex index) {
+        StringBuilder sb = new StringBuilder(index.getRoot().toString()).append('\n');
+        for (BattleSummary s : index.getBattles()) {
+            sb.append(describe(s)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void buildFindsAllLogs() throws IOException {
+        Path root = battles();
+        try (BattleIndexer indexer = new BattleIndexer(2)) {
+            BattleIndex index = indexer.build(root, null);
+
+            assertEquals(3, index.size());
+            assertTrue(indexer.getFailures().isEmpty());
+            assertEquals(0, indexer.getReusedCount());
+            assertNotNull(index.find("old/c.txt" + BattleLogFormat.GZIP_EXTENSION));
+        }
+    }
+
+    @Test
+    void saveAndLoadRoundTrip() throws IOException {
+        Path root = battles();
+        Path file = dir.resolve("battles" + BattleIndex.EXTENSION);
+        try (BattleIndexer indexer = new BattleIndexer(2)) {
+            BattleIndex index = indexer.build(root, null);
+            index.save(file);
+
+            BattleIndex loaded = BattleIndex.load(file);
+            assertEquals(describe(index), describe(loaded));
+            assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".tmp")));
+        }
+    }
+
+    @Test
+    void loadRejectsForeignFile() throws IOException {
+        Path file = dir.resolve("broken" + BattleIndex.EXTENSION);
+        Files.writeString(file, "DBLG");
+
+        assertThrows(IOException.class, () -> BattleIndex.load(file));
+    }
+
+    @Test
+    void unchangedFilesAreReused() throws IOException {
+        Path root = battles();
+        Path file = dir.resolve("battles" + BattleIndex.EXTENSION);
+        try (BattleIndexer indexer = new BattleIndexer(2)) {
+            indexer.build(root, null).save(file);
+            BattleIndex previous = BattleIndex.load(file);
+
+            BattleIndex again = indexer.build(root, previous);
+            assertEquals(previous.size(), indexer.getReusedCount());
+            for (BattleSummary s : again.getBattles()) {
+                assertSame(previous.find(s.getPath()), s);
+            }
+        }
+    }
+
+    @Test
+    void changedFileIsReadAgain() throws IOException {
+        Path root = battles();
+        try (BattleIndexer indexer = new BattleIndexer(2)) {
+            BattleIndex previous = indexer.build(root, null);
+
+            Path changed = root.resolve("a.txt");
+            BattleLogIO.write(TestBattles.finishedLog(11), changed);
+            long modified = previous.find("a.txt").getLastModifiedMs() + 5_000;
+            Files.setLastModifiedTime(changed, FileTime.fromMillis(modified));
+
+            BattleIndex again = indexer.build(root, previous);
+            assertEquals(previous.size() - 1, indexer.getReusedCount());
+            BattleSummary s = again.find("a.txt");
+            assertEquals(modified, s.getLastModifiedMs());
+            assertNotEquals(describe(previous.find("a.txt")), describe(s));
+            assertEquals(previous.size(), again.size());
+        }
+    }
+
+    @Test
+    void indexOfAnotherDirectoryIsNotReused() throws IOException {
+        Path root = battles();
+        try (BattleIndexer indexer = new BattleIndexer(2)) {
+            BattleIndex foreign = new BattleIndex(dir.resolve("elsewhere"), indexer.build(root, null).getBattles());
+
+            indexer.build(root, foreign);
+            assertEquals(0, indexer.getReusedCount());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package game.storage;
+
+import game.battle.BattleEngine;
+import game.battle.BattleSide;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryBattleLogTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripKeepsEventsAndCheckpoints() throws IOException {
+        BattleLog log = TestBattles.finishedLog(3);
+        assertFalse(log.getCheckpoints().isEmpty());
+        Path file = dir.resolve("battle.dblg");
+
+        BinaryBattleLogWriter.write(log, file);
+        BattleLog back = BinaryBattleLogReader.read(file);
+
+        assertEquals(log.getEventCount(), back.getEventCount());
+        assertEquals(TestBattles.dump(log), TestBattles.dump(back));
+    }
+
+    @Test
+    void attachedWriterMatchesWholeLogWrite() throws IOException {
+        BattleEngine engine = TestBattles.engine(5);
+        Path live = dir.resolve("live.dblg");
+        Path whole = dir.resolve("whole.dblg");
+
+        try (BinaryBattleLogWriter w = BinaryBattleLogWriter.attach(engine.getBattleLog(), live)) {
+            TestBattles.runToEnd(engine);
+        }
+        BinaryBattleLogWriter.write(engine.getBattleLog(), whole);
+
+        assertTrue(Arrays.equals(Files.readAllBytes(whole), Files.readAllBytes(live)));
+    }
+
+    @Test
+    void unknownDroidTypeSurvivesBinaryAndText() throws IOException {
+        BattleLog log = TestBattles.finishedLog(1);
+        log.addParticipant(new DroidEntry(999, "Прибулець", null, BattleSide.RIGHT));
+        Path bin = dir.resolve("battle.dblg");
+        Path txt = dir.resolve("battle.txt");
+
+        BinaryBattleLogWriter.write(log, bin);
+        BattleLogConverter.convert(bin, txt);
+
+        for (Path p : new Path[]{bin, txt}) {
+            BattleLog back = BattleLogIO.read(p);
+            DroidEntry last = back.getParticipants().get(back.getParticipants().size() - 1);
+            assertEquals("Прибулець", last.getName());
+            assertNull(last.getType());
+        }
+    }
+
+    @Test
+    void truncatedTailKeepsCompleteEvents() throws IOException {
+        BattleLog log = TestBattles.finishedLog(7);
+        Path file = dir.resolve("battle.dblg");
+        BinaryBattleLogWriter.write(log, file);
+
+        byte[] raw = Files.readAllBytes(file);
+        // обрізаємо посеред події: ціла частина має прочитатися, хвіст — ні
+        Files.write(file, Arrays.copyOf(raw, raw.length * 2 / 3 + 1));
+
+        BattleLog back;
+        try (BinaryBattleLogReader r = BinaryBattleLogReader.open(file)) {
+            back = r.readAll();
+            assertTrue(r.isTruncated());
+        }
+        int n = back.getEventCount();
+        assertTrue(n > 0 && n < log.getEventCount());
+        assertEquals(TestBattles.dumpEvents(log, n), TestBattles.dumpEvents(back, n));
+    }
+
+    @Test
+    void completeFileIsNotTruncated() throws IOException {
+        Path file = dir.resolve("battle.dblg");
+        BinaryBattleLogWriter.write(TestBattles.finishedLog(2), file);
+
+        try (BinaryBattleLogReader r = BinaryBattleLogReader.open(file)) {
+            r.readAll();
+            assertFalse(r.isTruncated());
+        }
+    }
+
+    @Test
+    void corruptHeaderIsRejected() throws IOException {
+        Path file = dir.resolve("battle.dblg");
+        BinaryBattleLogWriter.write(TestBattles.finishedLog(4), file);
+
+        byte[] raw = Files.readAllBytes(file);
+        raw[5] = 9;
+        Files.write(file, raw);
+
+        assertThrows(IOException.class, () -> BinaryBattleLogReader.read(file));
+    }
+}
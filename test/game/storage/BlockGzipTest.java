@@ -0,0 +1,142 @@
+package game.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockGzipTest {
+    @TempDir
+    Path dir;
+
+    /**
+     * Кілька блоків даних, що стискаються не до нуля (щоб блоків у файлі теж було кілька).
+     */
+    private static byte[] sample(int size) {
+        byte[] data = new byte[size];
+        Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return data;
+    }
+
+    private Path writeBlocks(byte[] data) throws IOException {
+        Path file = dir.resolve("data.gz");
+        try (OutputStream out = new BlockGzipOutputStream(Files.newOutputStream(file))) {
+            // різні розміри записів, щоб межі записів не збігалися з межами блоків
+            int pos = 0;
+            int step = 1;
+            while (pos < data.length) {
+                int n = Math.min(step, data.length - pos);
+                out.write(data, pos, n);
+                pos += n;
+                step = step * 3 % 9973 + 1;
+            }
+        }
+        return file;
+    }
+
+    @Test
+    void sequentialReadMatchesWrittenData() throws IOException {
+        byte[] data = sample(300_000);
+        Path file = writeBlocks(data);
+
+        assertTrue(BlockGzipInputStream.isBlockGzip(file));
+        try (BlockGzipInputStream in = BlockGzipInputStream.open(file)) {
+            assertArrayEquals(data, in.readAllBytes());
+            assertFalse(in.isTruncated());
+        }
+    }
+
+    @Test
+    void seekReturnsToRecordedVirtualOffsets() throws IOException {
+        byte[] data = sample(300_000);
+        Path file = writeBlocks(data);
+
+        int[] positions = {0, 1, 65_535, 65_536, 150_001, 299_999};
+        long[] offsets = new long[positions.length];
+        try (BlockGzipInputStream in = BlockGzipInputStream.open(file)) {
+            int pos = 0;
+            for (int i = 0; i < positions.length; i++) {
+                pos += in.readNBytes(positions[i] - pos).length;
+                offsets[i] = in.virtualOffset();
+            }
+            assertTrue(offsets[positions.length - 1] >>> 16 > 0);
+
+            // у зворотному порядку: кожен seek має розпакувати інший блок
+            for (int i = positions.length - 1; i >= 0; i--) {
+                in.seek(offsets[i]);
+                assertEquals(offsets[i], in.virtualOffset());
+                int n = Math.min(1000, data.length - positions[i]);
+                assertArrayEquals(Arrays.copyOfRange(data, positions[i], positions[i] + n), in.readNBytes(n));
+            }
+        }
+    }
+
+    @Test
+    void seekPastEndOfFileFails() throws IOException {
+        Path file = writeBlocks(sample(10_000));
+
+        try (BlockGzipInputStream in = BlockGzipInputStream.open(file)) {
+            long outside = (Files.size(file) + 1) << 16;
+            assertThrows(IOException.class, () -> in.seek(outside));
+        }
+    }
+
+    @Test
+    void truncatedLastBlockEndsData() throws IOException {
+        byte[] data = sample(300_000);
+        Path file = writeBlocks(data);
+        byte[] raw = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(raw, raw.length - 100));
+
+        try (BlockGzipInputStream in = BlockGzipInputStream.open(file)) {
+            byte[] back = in.readAllBytes();
+            assertTrue(in.isTruncated());
+            assertTrue(back.length > 0 && back.length < data.length);
+            assertArrayEquals(Arrays.copyOf(data, back.length), back);
+        }
+    }
+
+    @Test
+    void plainGzipFallsBackToStreamReading() throws IOException {
+        byte[] data = sample(100_000);
+        Path file = dir.resolve("plain.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(data);
+        }
+
+        assertFalse(BlockGzipInputStream.isBlockGzip(file));
+        try (InputStream in = BlockGzipInputStream.openAny(file)) {
+            assertFalse(in instanceof BlockGzipInputStream);
+            assertArrayEquals(data, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void plainGzipLogIsReadable() throws IOException {
+        BattleLog log = TestBattles.finishedLog(6);
+        Path txt = dir.resolve("battle.txt");
+        BattleLogIO.write(log, txt);
+        Path gz = dir.resolve("battle.txt.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gz))) {
+            Files.copy(txt, out);
+        }
+
+        assertEquals(TestBattles.dump(log), TestBattles.dump(BattleLogIO.read(gz)));
+    }
+}
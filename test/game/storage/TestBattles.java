@@ -0,0 +1,81 @@
+package game.storage;
+
+import game.battle.BattleEngine;
+import game.battle.BattleMode;
+import game.battle.BattleScenario;
+import game.droid.DroidBlueprint;
+import game.droid.DroidType;
+import game.util.SpriteLoader;
+
+import java.awt.Dimension;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Спільні заготовки для тестів збереження: справжній бій без спрайтів і текстовий відбиток логу.
+ */
+final class TestBattles {
+    private TestBattles() {
+    }
+
+    /**
+     * Двигун нового бою 3 на 3; лог ще порожній, тож до нього можна підʼєднати запис.
+     */
+    static BattleEngine engine(long seed) {
+        SpriteLoader.setImagesEnabled(false);
+        List<DroidBlueprint> left = new ArrayList<>();
+        List<DroidBlueprint> right = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            left.add(new DroidBlueprint(i + 1, DroidType.values()[(int) ((i + seed) % DroidType.values().length)], "L" + i));
+            right.add(new DroidBlueprint(i + 100, DroidType.values()[(int) ((i + seed + 1) % DroidType.values().length)], "R" + i));
+        }
+        BattleScenario scenario = new BattleScenario(BattleMode.TEAM_VS_TEAM, left, right, seed,
+                BattleScenario.DEFAULT_STEP_MS);
+        return new BattleEngine(scenario, new Dimension(1000, 700), false);
+    }
+
+    static void runToEnd(BattleEngine engine) {
+        while (!engine.isFinished()) {
+            engine.update(BattleScenario.DEFAULT_STEP_MS);
+        }
+    }
+
+    /**
+     * Лог завершеного бою (з подіями і знімками стану).
+     */
+    static BattleLog finishedLog(long seed) {
+        BattleEngine engine = engine(seed);
+        runToEnd(engine);
+        return engine.getBattleLog();
+    }
+
+    /**
+     * Учасники, події і знімки стану у текстовому форматі — для порівняння логів цілком.
+     */
+    static String dump(BattleLog log) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(log.getMode()).append('\n');
+        for (DroidEntry p : log.getParticipants()) {
+            BattleLogIO.appendDroid(sb, p);
+        }
+        for (int i = 0; i < log.getEventCount(); i++) {
+            BattleLogIO.appendEvent(sb, log, i);
+        }
+        for (BattleCheckpoint cp : log.getCheckpoints()) {
+            sb.append(cp.eventIndex()).append(':');
+            BattleLogIO.appendCheckpoint(sb, cp);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Відбиток лише перших count подій (для обірваних файлів).
+     */
+    static String dumpEvents(BattleLog log, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            BattleLogIO.appendEvent(sb, log, i);
+        }
+        return sb.toString();
+    }
+}